@@ -0,0 +1,76 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.dto.BulkCreateTicketRequest;
+import com.ticketmanager.dto.CreateTicketRequest;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a burst of {@code batch} tickets: one {@code POST /api/tickets/bulk} call, against one
+ * {@code createTicket} call per ticket as monitoring systems had to do before. Both dispatch and
+ * index every ticket; the score is the time per burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkCreateBenchmark {
+    @Param("500")
+    public int batch;
+
+    private TicketService ticketService;
+    private AuthenticatedUser admin;
+    private BulkCreateTicketRequest request;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        ticketService = seeded.getBean(TicketService.class);
+        admin = seeded.getAdmin();
+
+        List<Long> problemTypeIds = seeded.getProblemTypeIds();
+        List<CreateTicketRequest> tickets = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            CreateTicketRequest ticket = new CreateTicketRequest();
+            ticket.setTitle("Disk usage above 90% on host-" + i);
+            ticket.setDescription("Alert raised by monitoring: /var is at 93% on host-" + i + ".");
+            ticket.setPriority(Priority.values()[i % Priority.values().length]);
+            ticket.setProblemTypeId(problemTypeIds.get(i % problemTypeIds.size()));
+            tickets.add(ticket);
+        }
+        request = new BulkCreateTicketRequest();
+        request.setTickets(tickets);
+    }
+
+    @Benchmark
+    public int bulkCreate() {
+        return ticketService.createTickets(request, admin).getCreated();
+    }
+
+    @Benchmark
+    public int createOneByOne() {
+        int created = 0;
+        for (CreateTicketRequest ticket : request.getTickets()) {
+            ticketService.createTicket(ticket, admin);
+            created++;
+        }
+        return created;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.dto.CreateTicketRequest;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.ProblemTypeService;
+import com.ticketmanager.service.TicketService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single ticket creation with the problem type cache warm, and with it emptied before every call,
+ * which costs the problem type lookup each ticket made before the cache. The SQL statements per
+ * ticket, from Hibernate's statistics, are printed at the end of each run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateTicketBenchmark {
+    private TicketService ticketService;
+    private Cache problemTypeCache;
+    private Statistics statistics;
+    private AuthenticatedUser admin;
+    private List<CreateTicketRequest> requests;
+    private long statementsBefore;
+    private long created;
+    private int next;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        ticketService = seeded.getBean(TicketService.class);
+        problemTypeCache = seeded.getBean(CacheManager.class).getCache(ProblemTypeService.BY_ID_CACHE);
+        statistics = seeded.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        admin = seeded.getAdmin();
+        requests = seeded.getProblemTypeIds().stream()
+                .map(problemTypeId -> {
+                    CreateTicketRequest request = new CreateTicketRequest();
+                    request.setTitle("VPN disconnects every few minutes");
+                    request.setDescription("Since this morning the VPN client drops the connection every few minutes.");
+                    request.setPriority(Priority.HIGH);
+                    request.setProblemTypeId(problemTypeId);
+                    return request;
+                })
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        statementsBefore = statistics.getPrepareStatementCount();
+        created = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStatements() {
+        System.out.printf("%.2f statements per ticket%n", (statistics.getPrepareStatementCount() - statementsBefore) / (double) created);
+    }
+
+    @Benchmark
+    public TicketResponse cachedProblemTypes() {
+        return create();
+    }
+
+    @Benchmark
+    public TicketResponse uncachedProblemTypes() {
+        problemTypeCache.clear();
+        return create();
+    }
+
+    private TicketResponse create() {
+        next = (next + 1) % requests.size();
+        created++;
+        return ticketService.createTicket(requests.get(next), admin);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.UserRepository;
+import com.ticketmanager.service.AgentLoadIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Least-loaded agent selection: the in-memory load index used by dispatch today, against the
+ * previous approach of loading the specialists and counting each one's active tickets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+    private AgentLoadIndex agentLoadIndex;
+    private UserRepository userRepository;
+    private TicketRepository ticketRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> problemTypeIds;
+    private int next;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        agentLoadIndex = seeded.getBean(AgentLoadIndex.class);
+        userRepository = seeded.getBean(UserRepository.class);
+        ticketRepository = seeded.getBean(TicketRepository.class);
+        transactionTemplate = seeded.getBean(TransactionTemplate.class);
+        problemTypeIds = seeded.getProblemTypeIds();
+    }
+
+    @Benchmark
+    public Long loadIndex() {
+        Long agentId = agentLoadIndex.claimLeastLoaded(nextProblemType()).orElse(null);
+        // Hand the claim back so the loads stay level across iterations
+        agentLoadIndex.decrement(agentId);
+        return agentId;
+    }
+
+    @Benchmark
+    public Long queryPerAgent() {
+        Long problemTypeId = nextProblemType();
+        return transactionTemplate.execute(status -> userRepository.findAgentsByProblemType(problemTypeId).stream()
+                .min(Comparator.comparingLong((User agent) -> ticketRepository.countActiveTicketsByAgent(agent.getId())))
+                .map(User::getId)
+                .orElse(null));
+    }
+
+    private Long nextProblemType() {
+        next = (next + 1) % problemTypeIds.size();
+        return problemTypeIds.get(next);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ticketmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.repository.TicketFilter;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a ticket list page with the application's configured ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<TicketResponse> page;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        objectMapper = seeded.getBean(ObjectMapper.class);
+        page = seeded.getBean(TicketService.class)
+                .getAllTickets(seeded.getAdmin(), new TicketFilter(), TicketSort.CREATED_AT, Sort.Direction.DESC, null, pageSize,
+                        TicketService.DEFAULT_EMBEDDED_REPLIES)
+                .getItems();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.security.TokenRevocationList;
+import com.ticketmanager.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private JwtUtil jwtUtil;
+    private TokenRevocationList revocationList;
+    private User user;
+    private String token;
+    private String tokenId;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        jwtUtil = seeded.getBean(JwtUtil.class);
+        user = new User();
+        user.setId(42L);
+        user.setEmail("sam.agent@example.com");
+        user.setRole(Role.AGENT);
+        token = jwtUtil.generateToken(user);
+
+        // The per-request revocation check, against a list of revoked tokens not containing this one
+        revocationList = seeded.getBean(TokenRevocationList.class);
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        for (int i = 0; i < 10_000; i++) {
+            revocationList.add(UUID.randomUUID().toString(), expiresAt);
+        }
+        tokenId = jwtUtil.verify(token).getId();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return revocationList.isRevoked(tokenId);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtUtil.getEmailFromToken(token);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.dto.AuthResponse;
+import com.ticketmanager.dto.LoginRequest;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.exception.TooManyRequestsException;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.TicketService;
+import com.ticketmanager.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of sign-in: 40 threads log in as the seeded users as fast as they can, more than the
+ * hashing pool runs and queues, while two threads read tickets. The ticket reads are also measured
+ * alone, so the two runs show what the flood costs the rest of the API. Sign-ins turned away by
+ * the hashing pool (429) retry after 50 ms; completed and rejected sign-ins are printed at the end
+ * of each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LoginFloodBenchmark {
+    private static final long REJECTED_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private UserService userService;
+    private TicketService ticketService;
+    private AuthenticatedUser admin;
+    private List<Long> ticketIds;
+    private int users;
+    private final AtomicLong signedIn = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        userService = seeded.getBean(UserService.class);
+        ticketService = seeded.getBean(TicketService.class);
+        admin = seeded.getAdmin();
+        users = seeded.users;
+        ticketIds = seeded.getBean(TicketRepository.class).findAll(PageRequest.ofSize(100)).stream()
+                .map(Ticket::getId)
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        signedIn.set(0);
+        rejected.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printSignIns() {
+        System.out.printf("%d sign-ins, %d rejected by the hashing pool%n", signedIn.get(), rejected.get());
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(40)
+    public AuthResponse login() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("user" + ThreadLocalRandom.current().nextInt(users) + "@bench.local");
+        request.setPassword(SeededContext.PASSWORD);
+        try {
+            AuthResponse response = userService.login(request).join();
+            signedIn.incrementAndGet();
+            return response;
+        } catch (TooManyRequestsException e) {
+            // A client retrying soon after its 429, rather than a thread spinning on the CPU
+            rejected.incrementAndGet();
+            LockSupport.parkNanos(REJECTED_BACKOFF_NANOS);
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(2)
+    public TicketResponse readTicketDuringFlood() {
+        return readTicket();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public TicketResponse readTicketAlone() {
+        return readTicket();
+    }
+
+    private TicketResponse readTicket() {
+        Long id = ticketIds.get(ThreadLocalRandom.current().nextInt(ticketIds.size()));
+        return ticketService.getTicketById(id, admin, 3);
+    }
+}
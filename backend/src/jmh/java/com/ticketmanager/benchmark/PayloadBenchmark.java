@@ -0,0 +1,120 @@
+package com.ticketmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.ticketmanager.dto.TicketPageResponse;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.repository.TicketFilter;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.service.CompactTicketMapper;
+import com.ticketmanager.service.TicketService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time and payload size of a ticket list in each format the API can produce; the
+ * normalized variants include the rewrite into the normalized shape. The payload size is reported
+ * as the {@code bytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+    @Param("1000")
+    public int listSize;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private List<TicketResponse> tickets;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        json = seeded.getBean(ObjectMapper.class);
+        cbor = seeded.getBean(Jackson2ObjectMapperBuilder.class).createXmlMapper(false).factory(new CBORFactory()).build();
+
+        TicketService ticketService = seeded.getBean(TicketService.class);
+        tickets = new ArrayList<>(listSize);
+        String cursor = null;
+        do {
+            TicketPageResponse page = ticketService.getAllTickets(seeded.getAdmin(), new TicketFilter(), TicketSort.ID,
+                    Sort.Direction.ASC, cursor, Math.min(TicketService.MAX_PAGE_SIZE, listSize - tickets.size()),
+                    TicketService.DEFAULT_EMBEDDED_REPLIES);
+            tickets.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null && tickets.size() < listSize);
+    }
+
+    @Benchmark
+    public byte[] jsonFull(PayloadSize size) throws IOException {
+        return size.record(encode(json, tickets));
+    }
+
+    @Benchmark
+    public byte[] jsonNormalized(PayloadSize size) throws IOException {
+        return size.record(encode(json, CompactTicketMapper.toPage(tickets, null)));
+    }
+
+    @Benchmark
+    public byte[] cborFull(PayloadSize size) throws IOException {
+        return size.record(encode(cbor, tickets));
+    }
+
+    @Benchmark
+    public byte[] cborNormalized(PayloadSize size) throws IOException {
+        return size.record(encode(cbor, CompactTicketMapper.toPage(tickets, null)));
+    }
+
+    private byte[] encode(ObjectMapper mapper, Object value) throws IOException {
+        byte[] body = mapper.writeValueAsBytes(value);
+        if (!gzip) {
+            return body;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+        byte[] record(byte[] payload) {
+            bytes = payload.length;
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.UserRepository;
+import com.ticketmanager.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of request execution on Tomcat's platform threads and on virtual threads
+ * ({@code spring.threads.virtual.enabled}): 256 clients, more than the 200 platform request threads,
+ * read tickets over HTTP as fast as they can; {@code -t} sets another number of clients. Throughput
+ * mode gives the requests per millisecond, sample time mode the latency percentiles, p99 included.
+ * Requests that fail, e.g. because no connection was free within Hikari's timeout, count as done
+ * and are printed at the end of each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(256)
+public class RequestThreadsBenchmark {
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private List<Long> ticketIds;
+    private final AtomicLong failed = new AtomicLong();
+
+    @State(Scope.Benchmark)
+    public static class Server extends SeededContext {
+        @Param({"false", "true"})
+        public boolean virtualThreads;
+
+        @Override
+        protected Map<String, Object> properties() {
+            return Map.of("spring.threads.virtual.enabled", virtualThreads);
+        }
+    }
+
+    @Setup
+    public void setUp(Server server) {
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + server.getBean(Environment.class).getRequiredProperty("local.server.port") + "/api/tickets/";
+        User admin = server.getBean(UserRepository.class).findById(server.getAdmin().getId()).orElseThrow();
+        authorization = "Bearer " + server.getBean(JwtUtil.class).generateToken(admin);
+        ticketIds = server.getBean(TicketRepository.class).findAll(PageRequest.ofSize(100)).stream()
+                .map(Ticket::getId)
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        failed.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printFailures() {
+        System.out.printf("%d requests failed%n", failed.get());
+    }
+
+    @Benchmark
+    public int getTicket() throws IOException, InterruptedException {
+        Long id = ticketIds.get(ThreadLocalRandom.current().nextInt(ticketIds.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                .header("Authorization", authorization)
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            failed.incrementAndGet();
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,175 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.TicketManagerApplication;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Reply;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.ProblemTypeRepository;
+import com.ticketmanager.repository.ReplyRepository;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.UserRepository;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.AgentLoadIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Application context on the embedded {@code bench} database, seeded once per trial. Sizes are JMH
+ * parameters, e.g. {@code -Djmh.args="-p tickets=10000 -p agents=200"}.
+ */
+@State(Scope.Benchmark)
+public class SeededContext {
+    // Every seeded user's password, stored as a precomputed BCrypt hash so setup does no hashing
+    public static final String PASSWORD = "password";
+    private static final String PASSWORD_HASH = "$2a$10$Olx8hyYppvFZJJDiLogoV.S/j3hXAzpLKk/pm2TunDKGAGjl.Kri.";
+
+    @Param("1000")
+    public int tickets;
+
+    @Param("50")
+    public int agents;
+
+    @Param("200")
+    public int users;
+
+    @Param("10")
+    public int problemTypes;
+
+    @Param("5")
+    public int repliesPerTicket;
+
+    private ConfigurableApplicationContext context;
+    private List<Long> problemTypeIds;
+    private AuthenticatedUser admin;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TicketManagerApplication.class)
+                .profiles("bench")
+                .properties(properties())
+                .run();
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> seed());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Overridden by states that start the application differently
+    protected Map<String, Object> properties() {
+        return Map.of();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public List<Long> getProblemTypeIds() {
+        return problemTypeIds;
+    }
+
+    public AuthenticatedUser getAdmin() {
+        return admin;
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+
+        List<ProblemType> types = new ArrayList<>(problemTypes);
+        for (int i = 0; i < problemTypes; i++) {
+            ProblemType type = new ProblemType();
+            type.setName("TYPE_" + i);
+            type.setDescription("Problem type " + i);
+            types.add(type);
+        }
+        types = getBean(ProblemTypeRepository.class).saveAll(types);
+        problemTypeIds = types.stream().map(ProblemType::getId).toList();
+
+        UserRepository userRepository = getBean(UserRepository.class);
+        User adminUser = userRepository.save(user("admin", Role.ADMIN));
+        admin = new AuthenticatedUser(adminUser.getId(), adminUser.getEmail(), Role.ADMIN);
+
+        // Every agent covers two problem types, so each type has roughly 2 * agents / problemTypes specialists
+        List<User> agentUsers = new ArrayList<>(agents);
+        for (int i = 0; i < agents; i++) {
+            User agent = user("agent" + i, Role.AGENT);
+            agent.getSpecializations().add(types.get(i % problemTypes));
+            agent.getSpecializations().add(types.get((i + 1) % problemTypes));
+            agentUsers.add(agent);
+        }
+        agentUsers = userRepository.saveAll(agentUsers);
+
+        List<User> creators = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            creators.add(user("user" + i, Role.USER));
+        }
+        creators = userRepository.saveAll(creators);
+
+        List<Ticket> seededTickets = new ArrayList<>(tickets);
+        for (int i = 0; i < tickets; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTitle("Ticket " + i + ": printer does not respond");
+            ticket.setDescription("The printer on floor " + (i % 7) + " shows a paper jam although the tray is empty.");
+            ticket.setStatus(TicketStatus.values()[random.nextInt(TicketStatus.values().length)]);
+            ticket.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+            ticket.setCreatedBy(creators.get(random.nextInt(creators.size())));
+            ticket.setProblemType(types.get(random.nextInt(types.size())));
+            ticket.setIsPublic(random.nextBoolean());
+            ticket.setReplyCount(repliesPerTicket);
+            if (!agentUsers.isEmpty()) {
+                ticket.setAssignedTo(agentUsers.get(random.nextInt(agentUsers.size())));
+            }
+            seededTickets.add(ticket);
+        }
+        seededTickets = getBean(TicketRepository.class).saveAll(seededTickets);
+
+        List<Reply> replies = new ArrayList<>(tickets * repliesPerTicket);
+        for (Ticket ticket : seededTickets) {
+            for (int i = 0; i < repliesPerTicket; i++) {
+                Reply reply = new Reply();
+                reply.setTicket(ticket);
+                reply.setUser(i % 2 == 0 && ticket.getAssignedTo() != null ? ticket.getAssignedTo() : ticket.getCreatedBy());
+                reply.setContent("Reply " + i + ": we are looking into it, please restart the device and try again.");
+                replies.add(reply);
+            }
+        }
+        getBean(ReplyRepository.class).saveAll(replies);
+
+        // The load index was seeded from the empty database at startup
+        AgentLoadIndex agentLoadIndex = getBean(AgentLoadIndex.class);
+        for (User agent : agentUsers) {
+            Set<Long> specializationIds = agent.getSpecializations().stream()
+                    .map(ProblemType::getId)
+                    .collect(Collectors.toSet());
+            agentLoadIndex.registerAgent(agent.getId(), specializationIds, 1);
+        }
+    }
+
+    private static User user(String name, Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@bench.local");
+        user.setPassword(PASSWORD_HASH);
+        user.setRole(role);
+        return user;
+    }
+}
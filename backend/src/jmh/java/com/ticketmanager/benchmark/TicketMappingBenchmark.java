@@ -0,0 +1,103 @@
+package com.ticketmanager.benchmark;
+
+import com.ticketmanager.dto.ReplyResponse;
+import com.ticketmanager.dto.TicketPageResponse;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.dto.UserResponse;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.TicketFilter;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket to response mapping: a single detached ticket graph, and a full first page of the admin
+ * ticket list including the keyset query and the batched reply load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketMappingBenchmark {
+    @Param("10")
+    public int repliesPerResponse;
+
+    private TicketService ticketService;
+    private AuthenticatedUser admin;
+    private Ticket ticket;
+    private List<ReplyResponse> replies;
+
+    @Setup
+    public void setUp(SeededContext seeded) {
+        ticketService = seeded.getBean(TicketService.class);
+        admin = seeded.getAdmin();
+
+        User creator = user(1L, "Jane Customer", Role.USER);
+        User agent = user(2L, "Sam Agent", Role.AGENT);
+        ProblemType problemType = new ProblemType();
+        problemType.setId(seeded.getProblemTypeIds().get(0));
+
+        ticket = new Ticket();
+        ticket.setId(1L);
+        ticket.setTitle("Printer does not respond");
+        ticket.setDescription("The printer on floor 3 shows a paper jam although the tray is empty.");
+        ticket.setStatus(TicketStatus.IN_PROGRESS);
+        ticket.setPriority(Priority.HIGH);
+        ticket.setCreatedAt(LocalDateTime.now());
+        ticket.setCreatedBy(creator);
+        ticket.setAssignedTo(agent);
+        ticket.setProblemType(problemType);
+        ticket.setReplyCount(repliesPerResponse);
+
+        replies = new ArrayList<>(repliesPerResponse);
+        for (int i = 0; i < repliesPerResponse; i++) {
+            User author = i % 2 == 0 ? agent : creator;
+            replies.add(new ReplyResponse((long) i, "Reply " + i + ": please restart the device and try again.",
+                    LocalDateTime.now(), new UserResponse(author.getId(), author.getName(), author.getEmail(), author.getRole())));
+        }
+    }
+
+    @Benchmark
+    public TicketResponse mapTicket() {
+        return ticketService.mapToTicketResponse(ticket, replies);
+    }
+
+    @Benchmark
+    public TicketPageResponse firstPage() {
+        return ticketService.getAllTickets(admin, new TicketFilter(), TicketSort.CREATED_AT, Sort.Direction.DESC,
+                null, TicketService.DEFAULT_PAGE_SIZE, TicketService.DEFAULT_EMBEDDED_REPLIES);
+    }
+
+    private static User user(Long id, String name, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name.toLowerCase().replace(' ', '.') + "@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -2,8 +2,12 @@ package com.ticketmanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class TicketManagerApplication {
     public static void main(String[] args) {
         SpringApplication.run(TicketManagerApplication.class, args);
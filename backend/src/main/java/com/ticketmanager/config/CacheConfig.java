@@ -0,0 +1,30 @@
+package com.ticketmanager.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketmanager.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+    /**
+     * The caches are local to each instance, and evicting the agent list when an agent is created only
+     * clears the copy of the instance that handled the request. Other instances keep listing the old
+     * agents until their copy expires, so the agent list gets a much shorter lifetime than the
+     * problem type caches ({@code cache.agents-ttl}).
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> agentsCacheCustomizer(
+            @Value("${cache.agents-ttl:1m}") Duration agentsTtl) {
+        return cacheManager -> cacheManager.registerCustomCache(UserService.AGENTS_CACHE, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(agentsTtl)
+                .recordStats()
+                .build());
+    }
+}
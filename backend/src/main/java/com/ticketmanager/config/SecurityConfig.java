@@ -1,8 +1,12 @@
 package com.ticketmanager.config;
 
 import com.ticketmanager.security.JwtAuthenticationFilter;
+import com.ticketmanager.security.TokenRevocationList;
+import com.ticketmanager.security.VerifiedTokenCache;
 import com.ticketmanager.service.UserService;
 import com.ticketmanager.util.JwtUtil;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -28,16 +32,21 @@ import java.util.List;
 @EnableMethodSecurity
 public class SecurityConfig {
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
     private final UserService userService;
 
-    public SecurityConfig(JwtUtil jwtUtil, @Lazy UserService userService) {
+    public SecurityConfig(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache, TokenRevocationList tokenRevocationList,
+                          @Lazy UserService userService) {
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
         this.userService = userService;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, userService);
+        return new JwtAuthenticationFilter(jwtUtil, verifiedTokenCache, tokenRevocationList, userService);
     }
 
     @Bean
@@ -47,7 +56,11 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (server-sent events) were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -68,6 +81,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // Cache preflight for 1 hour
         
@@ -76,9 +90,10 @@ public class SecurityConfig {
         return source;
     }
 
+    // Raising the strength rehashes each password on its owner's next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -1,13 +1,17 @@
 package com.ticketmanager.controller;
 
 import com.ticketmanager.dto.CreateAgentRequest;
+import com.ticketmanager.dto.TicketResponse;
 import com.ticketmanager.dto.UserResponse;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.TicketService;
 import com.ticketmanager.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,6 +21,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AgentController {
     private final UserService userService;
+    private final TicketService ticketService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -25,6 +30,15 @@ public class AgentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Claims the next waiting ticket for the calling agent; 204 when there is none
+    @PostMapping("/me/next")
+    @PreAuthorize("hasRole('AGENT')")
+    public ResponseEntity<TicketResponse> claimNextTicket(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ticketService.claimNextTicket(currentUser)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<UserResponse>> getAllAgents() {
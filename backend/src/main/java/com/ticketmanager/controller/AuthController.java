@@ -2,39 +2,68 @@ package com.ticketmanager.controller;
 
 import com.ticketmanager.dto.AuthResponse;
 import com.ticketmanager.dto.LoginRequest;
+import com.ticketmanager.dto.LogoutRequest;
+import com.ticketmanager.dto.RefreshTokenRequest;
 import com.ticketmanager.dto.RegisterRequest;
 import com.ticketmanager.dto.UserResponse;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.security.ClientAddressResolver;
+import com.ticketmanager.security.LoginThrottle;
+import com.ticketmanager.service.TokenService;
 import com.ticketmanager.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
     private final UserService userService;
+    private final TokenService tokenService;
+    private final LoginThrottle loginThrottle;
+    private final ClientAddressResolver clientAddressResolver;
 
+    // Asynchronous: the request thread is released while the password is hashed
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = userService.login(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        loginThrottle.acquire(clientAddressResolver.resolve(httpRequest), request.getEmail());
+        return userService.login(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) {
-        UserResponse response = userService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<UserResponse>> register(@Valid @RequestBody RegisterRequest request,
+                                                                    HttpServletRequest httpRequest) {
+        loginThrottle.acquire(clientAddressResolver.resolve(httpRequest), request.getEmail());
+        return userService.register(request)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = tokenService.refresh(request.getRefreshToken());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) LogoutRequest request,
+                                       @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        tokenService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication) {
-        String email = authentication.getName();
-        UserResponse response = userService.getCurrentUser(email);
+    public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        UserResponse response = userService.getCurrentUser(currentUser.getId());
         return ResponseEntity.ok(response);
     }
 }
@@ -1,17 +1,19 @@
 package com.ticketmanager.controller;
 
+import com.ticketmanager.dto.ReplyPageResponse;
 import com.ticketmanager.dto.ReplyRequest;
 import com.ticketmanager.dto.ReplyResponse;
+import com.ticketmanager.security.AuthenticatedUser;
 import com.ticketmanager.service.ReplyService;
+import com.ticketmanager.util.ETagUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/tickets/{ticketId}/replies")
 @RequiredArgsConstructor
@@ -22,16 +24,26 @@ public class ReplyController {
     public ResponseEntity<ReplyResponse> createReply(
             @PathVariable Long ticketId,
             @Valid @RequestBody ReplyRequest request,
-            Authentication authentication) {
-        String email = authentication.getName();
-        ReplyResponse response = replyService.createReply(ticketId, request, email);
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        ReplyResponse response = replyService.createReply(ticketId, request, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<ReplyResponse>> getRepliesByTicketId(@PathVariable Long ticketId) {
-        List<ReplyResponse> replies = replyService.getRepliesByTicketId(ticketId);
-        return ResponseEntity.ok(replies);
+    public ResponseEntity<ReplyPageResponse> getRepliesByTicketId(
+            @PathVariable Long ticketId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ReplyService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Read before the replies, so the tag is never newer than the body it is sent with
+        String etag = ETagUtil.variant(ETagUtil.replies(ticketId, replyService.getTicketVersion(ticketId)), accept);
+        if (ETagUtil.noneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        ReplyPageResponse replies = replyService.getReplies(ticketId, cursor, limit);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(replies);
     }
 }
 
@@ -0,0 +1,23 @@
+package com.ticketmanager.controller;
+
+import com.ticketmanager.dto.TicketStatsResponse;
+import com.ticketmanager.service.TicketStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    private final TicketStatsService ticketStatsService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TicketStatsResponse> getStats() {
+        return ResponseEntity.ok(ticketStatsService.getStats());
+    }
+}
@@ -3,15 +3,24 @@ package com.ticketmanager.controller;
 import com.ticketmanager.dto.*;
 import com.ticketmanager.entity.Priority;
 import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.repository.TicketFilter;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.CompactTicketMapper;
 import com.ticketmanager.service.TicketService;
+import com.ticketmanager.util.ETagUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,50 +32,130 @@ public class TicketController {
     @PostMapping
     public ResponseEntity<TicketResponse> createTicket(
             @Valid @RequestBody CreateTicketRequest request,
-            Authentication authentication) {
-        String email = authentication.getName();
-        TicketResponse response = ticketService.createTicket(request, email);
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        TicketResponse response = ticketService.createTicket(request, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateTicketResponse> createTickets(
+            @Valid @RequestBody BulkCreateTicketRequest request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        BulkCreateTicketResponse response = ticketService.createTickets(request, currentUser);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkUpdateTicketResponse> updateTickets(
+            @Valid @RequestBody BulkUpdateTicketRequest request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        BulkUpdateTicketResponse response = ticketService.updateTickets(request, currentUser);
+        return ResponseEntity.ok(response);
+    }
+
+    // normalized=true returns users and problem types once per payload, referenced by id;
+    // replies=N embeds the latest N replies of each ticket; archived=true (admins) includes the archive
     @GetMapping
-    public ResponseEntity<List<TicketResponse>> getAllTickets(
+    public ResponseEntity<?> getAllTickets(
             @RequestParam(required = false) TicketStatus status,
             @RequestParam(required = false) Priority priority,
             @RequestParam(required = false) Long problemTypeId,
             @RequestParam(required = false) Boolean isPublic,
-            Authentication authentication) {
-        String email = authentication.getName();
-        List<TicketResponse> tickets = ticketService.getAllTickets(email, status, priority, problemTypeId, isPublic);
-        return ResponseEntity.ok(tickets);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(defaultValue = "CREATED_AT") TicketSort sort,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TicketService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean normalized,
+            @RequestParam(defaultValue = "" + TicketService.DEFAULT_EMBEDDED_REPLIES) int replies,
+            @RequestParam(defaultValue = "false") boolean archived,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        TicketFilter filter = new TicketFilter(status, priority, problemTypeId, isPublic);
+        filter.setCreatedFrom(createdFrom);
+        filter.setCreatedTo(createdTo);
+        if (archived) {
+            TicketPageResponse page = ticketService.getAllTicketsWithArchive(currentUser, filter, sort, direction, cursor, limit, replies);
+            return normalized
+                    ? ResponseEntity.ok(CompactTicketMapper.toPage(page.getItems(), page.getNextCursor()))
+                    : ResponseEntity.ok(page);
+        }
+        if (ifNoneMatch != null) {
+            String etag = ETagUtil.variant(ticketService.getTicketPageETag(currentUser, filter, sort, direction, cursor, limit), normalized, accept);
+            if (ETagUtil.noneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+
+        TicketPageResponse page = ticketService.getAllTickets(currentUser, filter, sort, direction, cursor, limit, replies);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(ETagUtil.variant(pageETag(page), normalized, accept)).varyBy(HttpHeaders.ACCEPT);
+        return normalized
+                ? ok.body(CompactTicketMapper.toPage(page.getItems(), page.getNextCursor()))
+                : ok.body(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTickets(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean normalized,
+            @RequestParam(defaultValue = "" + TicketService.DEFAULT_EMBEDDED_REPLIES) int replies,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        List<TicketResponse> tickets = ticketService.searchTickets(query, currentUser, limit, replies);
+        return normalized
+                ? ResponseEntity.ok(CompactTicketMapper.toPage(tickets, null))
+                : ResponseEntity.ok(tickets);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TicketResponse> getTicketById(
             @PathVariable Long id,
-            Authentication authentication) {
-        String email = authentication.getName();
-        TicketResponse ticket = ticketService.getTicketById(id, email);
-        return ResponseEntity.ok(ticket);
+            @RequestParam(defaultValue = "" + TicketService.DEFAULT_EMBEDDED_REPLIES) int replies,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (ifNoneMatch != null) {
+            String etag = ETagUtil.variant(ETagUtil.ticket(id, ticketService.getTicketVersion(id, currentUser)), accept);
+            if (ETagUtil.noneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+
+        TicketResponse ticket = ticketService.getTicketById(id, currentUser, replies);
+        return ResponseEntity.ok()
+                .eTag(ETagUtil.variant(ETagUtil.ticket(id, ticket.getVersion()), accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(ticket);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TicketResponse> updateTicket(
             @PathVariable Long id,
             @Valid @RequestBody UpdateTicketRequest request,
-            Authentication authentication) {
-        String email = authentication.getName();
-        TicketResponse response = ticketService.updateTicket(id, request, email);
-        return ResponseEntity.ok(response);
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        TicketResponse response = ticketService.updateTicket(id, request, currentUser, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(ETagUtil.variant(ETagUtil.ticket(id, response.getVersion()), accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response);
     }
 
     @PutMapping("/{id}/assign")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<TicketResponse> assignTicket(
             @PathVariable Long id,
-            @Valid @RequestBody AssignTicketRequest request) {
-        TicketResponse response = ticketService.assignTicket(id, request);
-        return ResponseEntity.ok(response);
+            @Valid @RequestBody AssignTicketRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        TicketResponse response = ticketService.assignTicket(id, request, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(ETagUtil.variant(ETagUtil.ticket(id, response.getVersion()), accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -75,5 +164,11 @@ public class TicketController {
         ticketService.deleteTicket(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private static String pageETag(TicketPageResponse page) {
+        return ETagUtil.page(
+                page.getItems().stream().map(TicketResponse::getId).toList(),
+                page.getItems().stream().map(TicketResponse::getVersion).toList(),
+                page.getNextCursor() != null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ticketmanager.controller;
+
+import com.ticketmanager.event.TicketEventBroadcaster;
+import com.ticketmanager.security.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/tickets/events")
+@RequiredArgsConstructor
+public class TicketEventController {
+    private final TicketEventBroadcaster ticketEventBroadcaster;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ticketEventBroadcaster.subscribe(currentUser);
+    }
+}
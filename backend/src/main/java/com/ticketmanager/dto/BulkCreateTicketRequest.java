@@ -0,0 +1,15 @@
+package com.ticketmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreateTicketRequest {
+    @NotEmpty(message = "At least one ticket is required")
+    @Size(max = 1000, message = "At most 1000 tickets can be created at once")
+    private List<@Valid CreateTicketRequest> tickets;
+}
@@ -0,0 +1,15 @@
+package com.ticketmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateTicketResponse {
+    private int created;
+    private List<Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.ticketmanager.dto;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class BulkUpdateTicketRequest {
+    @NotEmpty(message = "At least one ticket id is required")
+    @Size(max = 1000, message = "At most 1000 tickets can be updated at once")
+    private Set<Long> ids;
+
+    // Only the supplied fields are changed; assignment requires the ADMIN role
+    private TicketStatus status;
+    private Priority priority;
+    private Long assignedToId;
+}
@@ -0,0 +1,17 @@
+package com.ticketmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactReplyResponse {
+    private Long id;
+    private String content;
+    private LocalDateTime createdAt;
+    private Long userId;
+}
@@ -0,0 +1,22 @@
+package com.ticketmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalized ticket list: users and problem types appear once, keyed by id, and tickets and
+ * replies refer to them by id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactTicketPageResponse {
+    private List<CompactTicketResponse> items;
+    private Map<Long, UserResponse> users;
+    private Map<Long, ProblemTypeResponse> problemTypes;
+    private String nextCursor;
+}
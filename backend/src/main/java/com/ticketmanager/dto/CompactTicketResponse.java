@@ -0,0 +1,29 @@
+package com.ticketmanager.dto;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactTicketResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private TicketStatus status;
+    private Priority priority;
+    private LocalDateTime createdAt;
+    private Long createdById;
+    private Long assignedToId;
+    private Long problemTypeId;
+    private Boolean isPublic;
+    private Integer replyCount;
+    private List<CompactReplyResponse> replies;
+    private Long version;
+}
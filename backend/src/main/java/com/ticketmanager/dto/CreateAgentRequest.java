@@ -1,6 +1,7 @@
 package com.ticketmanager.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
@@ -21,5 +22,9 @@ public class CreateAgentRequest {
 
     @NotEmpty(message = "At least one specialization is required")
     private List<Long> specializationIds;
+
+    // Relative share of tickets auto-dispatch gives the agent; 1 when omitted
+    @Min(value = 1, message = "Capacity must be at least 1")
+    private Integer capacity;
 }
 
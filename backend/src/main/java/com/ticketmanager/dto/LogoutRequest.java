@@ -0,0 +1,8 @@
+package com.ticketmanager.dto;
+
+import lombok.Data;
+
+@Data
+public class LogoutRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,22 @@
+package com.ticketmanager.dto;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.event.TicketEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketEventResponse {
+    private TicketEventType type;
+    private Long ticketId;
+    private TicketStatus status;
+    private Priority priority;
+    private Long assignedToId;
+    private Instant occurredAt;
+}
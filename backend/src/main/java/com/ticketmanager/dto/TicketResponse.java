@@ -23,6 +23,9 @@ public class TicketResponse {
     private UserResponse assignedTo;
     private ProblemTypeResponse problemType;
     private Boolean isPublic;
+    private Integer replyCount;
+    // The latest replies only, oldest first; the full thread is paged via the replies endpoint
     private List<ReplyResponse> replies;
+    private Long version;
 }
 
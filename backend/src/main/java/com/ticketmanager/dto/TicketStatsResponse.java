@@ -0,0 +1,21 @@
+package com.ticketmanager.dto;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatsResponse {
+    private long total;
+    private Map<TicketStatus, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private Map<Long, Long> byProblemType;
+    private Map<Long, Long> byAssignee;
+    private long unassigned;
+}
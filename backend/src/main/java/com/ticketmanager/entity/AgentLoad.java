@@ -0,0 +1,27 @@
+package com.ticketmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persistent load counter of one agent, see {@code DatabaseAgentLoadTracker}. The derived
+ * {@code load_score} column is only used by the dispatch query and is not mapped.
+ */
+@Entity
+@Table(name = "agent_load")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentLoad {
+    @Id
+    @Column(name = "agent_id")
+    private Long agentId;
+
+    @Column(name = "active_tickets", nullable = false)
+    private Integer activeTickets = 0;
+
+    @Column(nullable = false)
+    private Integer capacity = 1;
+}
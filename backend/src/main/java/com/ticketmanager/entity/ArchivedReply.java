@@ -0,0 +1,36 @@
+package com.ticketmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "archived_replies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedReply {
+    @Id
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Stored COMPRESS()ed
+    @ColumnTransformer(read = "CONVERT(UNCOMPRESS(content) USING utf8mb4)")
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
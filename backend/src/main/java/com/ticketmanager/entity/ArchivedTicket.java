@@ -0,0 +1,71 @@
+package com.ticketmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A closed ticket moved out of the live table by the archival job. Rows are written by
+ * INSERT ... SELECT only (see ArchivedTicketRepository.copyFromLive) and never change afterwards.
+ */
+@Entity
+@Immutable
+@Table(name = "archived_tickets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTicket {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    // Stored COMPRESS()ed
+    @ColumnTransformer(read = "CONVERT(UNCOMPRESS(description) USING utf8mb4)")
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TicketStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Priority priority;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_to")
+    private User assignedTo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "problem_type_id")
+    private ProblemType problemType;
+
+    @Column(name = "is_public", nullable = false)
+    private Boolean isPublic;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "reply_count", nullable = false)
+    private Integer replyCount;
+}
@@ -0,0 +1,6 @@
+package com.ticketmanager.entity;
+
+public enum NotificationType {
+    TICKET_ASSIGNED,
+    REPLY_ADDED
+}
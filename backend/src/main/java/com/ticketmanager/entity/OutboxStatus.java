@@ -0,0 +1,6 @@
+package com.ticketmanager.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,8 +16,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ticket {
+    // Sequence-style ids (table-backed on MySQL) keep JDBC insert batching enabled, unlike IDENTITY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,6 +39,10 @@ public class Ticket {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Last change of the row other than a new reply; the search index catches up from it
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
@@ -51,15 +58,35 @@ public class Ticket {
     @Column(name = "is_public", nullable = false)
     private Boolean isPublic = true;
 
+    // Closed tickets are archived once this is older than archive.closed-for
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    // Also bumped for new replies (see TicketRepository.registerReply)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "reply_count", nullable = false)
+    private Integer replyCount = 0;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Reply> replies = new ArrayList<>();
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Whole seconds, as the TIMESTAMP column stores them: the entity's value then matches the
+        // row's, which lookups bounded by created_at rely on
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        updatedAt = createdAt;
         if (isPublic == null) {
             isPublic = true;
         }
     }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
 
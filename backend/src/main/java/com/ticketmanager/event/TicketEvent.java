@@ -0,0 +1,57 @@
+package com.ticketmanager.event;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Published by the services inside the changing transaction; listeners react after commit.
+ * {@code before} is null for creations and {@code after} is null for deletions and archivals.
+ * The reply fields are only set for {@link TicketEventType#REPLY_ADDED}.
+ */
+@Value
+public class TicketEvent {
+    TicketEventType type;
+    TicketSnapshot before;
+    TicketSnapshot after;
+    Instant occurredAt;
+    Long replyId;
+    Long replyAuthorId;
+
+    public static TicketEvent created(TicketSnapshot after) {
+        return new TicketEvent(TicketEventType.TICKET_CREATED, null, after, Instant.now(), null, null);
+    }
+
+    public static TicketEvent updated(TicketSnapshot before, TicketSnapshot after) {
+        return new TicketEvent(TicketEventType.TICKET_UPDATED, before, after, Instant.now(), null, null);
+    }
+
+    public static TicketEvent assigned(TicketSnapshot before, TicketSnapshot after) {
+        return new TicketEvent(TicketEventType.TICKET_ASSIGNED, before, after, Instant.now(), null, null);
+    }
+
+    // An agent took the ticket from the pull queue
+    public static TicketEvent claimed(TicketSnapshot before, TicketSnapshot after) {
+        return new TicketEvent(TicketEventType.TICKET_CLAIMED, before, after, Instant.now(), null, null);
+    }
+
+    public static TicketEvent deleted(TicketSnapshot before) {
+        return new TicketEvent(TicketEventType.TICKET_DELETED, before, null, Instant.now(), null, null);
+    }
+
+    public static TicketEvent archived(TicketSnapshot before) {
+        return new TicketEvent(TicketEventType.TICKET_ARCHIVED, before, null, Instant.now(), null, null);
+    }
+
+    public static TicketEvent replyAdded(TicketSnapshot ticket, Long replyId, Long replyAuthorId) {
+        return new TicketEvent(TicketEventType.REPLY_ADDED, ticket, ticket, Instant.now(), replyId, replyAuthorId);
+    }
+
+    public Long getTicketId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public TicketSnapshot getCurrent() {
+        return after != null ? after : before;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ticketmanager.event;
+
+import com.ticketmanager.dto.TicketEventResponse;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.security.AuthenticatedUser;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed ticket changes to connected dashboards over server-sent events.
+ *
+ * Publishing never blocks: each subscriber has a bounded buffer that a small sender pool drains,
+ * at most one drain task per subscriber at a time. A subscriber whose buffer is full is considered
+ * too slow and is disconnected; the client is expected to reconnect and reload its view.
+ */
+@Slf4j
+@Component
+public class TicketEventBroadcaster {
+    private static final Object HEARTBEAT = new Object();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final int bufferSize;
+    private final long emitterTimeout;
+
+    public TicketEventBroadcaster(@Value("${events.buffer-size:64}") int bufferSize,
+                                  @Value("${events.emitter-timeout:1800000}") long emitterTimeout,
+                                  @Value("${events.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeout = emitterTimeout;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(AuthenticatedUser user) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(user, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketEvent(TicketEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        TicketSnapshot current = event.getCurrent();
+        TicketEventResponse payload = new TicketEventResponse(event.getType(), event.getTicketId(), current.getStatus(),
+                current.getPriority(), current.getAssignedToId(), event.getOccurredAt());
+        for (Subscriber subscriber : subscribers) {
+            if (canSee(subscriber.user, event.getBefore()) || canSee(subscriber.user, event.getAfter())) {
+                enqueue(subscriber, payload);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval:25000}")
+    void heartbeat() {
+        subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private boolean canSee(AuthenticatedUser user, TicketSnapshot ticket) {
+        if (ticket == null) {
+            return false;
+        }
+        if (user.getRole() == Role.ADMIN || ticket.isPublic()) {
+            return true;
+        }
+        if (user.getRole() == Role.AGENT) {
+            return user.getId().equals(ticket.getAssignedToId());
+        }
+        return user.getId().equals(ticket.getCreatedById());
+    }
+
+    private void enqueue(Subscriber subscriber, Object message) {
+        if (!subscriber.queue.offer(message)) {
+            log.debug("Disconnecting slow event subscriber {}", subscriber.user.getId());
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while ((message = subscriber.queue.poll()) != null) {
+                if (message == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    TicketEventResponse event = (TicketEventResponse) message;
+                    subscriber.emitter.send(SseEmitter.event().name(event.getType().name()).data(event));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A message may have arrived after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+        private final AuthenticatedUser user;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(AuthenticatedUser user, SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.user = user;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
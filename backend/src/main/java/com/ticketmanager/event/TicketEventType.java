@@ -0,0 +1,11 @@
+package com.ticketmanager.event;
+
+public enum TicketEventType {
+    TICKET_CREATED,
+    TICKET_UPDATED,
+    TICKET_ASSIGNED,
+    TICKET_CLAIMED,
+    TICKET_DELETED,
+    TICKET_ARCHIVED,
+    REPLY_ADDED
+}
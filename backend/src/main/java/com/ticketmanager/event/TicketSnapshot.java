@@ -0,0 +1,32 @@
+package com.ticketmanager.event;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+import lombok.Value;
+
+/**
+ * The routing-relevant state of a ticket at one point in time.
+ */
+@Value
+public class TicketSnapshot {
+    Long id;
+    TicketStatus status;
+    Priority priority;
+    Long problemTypeId;
+    Long createdById;
+    Long assignedToId;
+    boolean isPublic;
+
+    public static TicketSnapshot of(Ticket ticket) {
+        return new TicketSnapshot(
+                ticket.getId(),
+                ticket.getStatus(),
+                ticket.getPriority(),
+                ticket.getProblemType() != null ? ticket.getProblemType().getId() : null,
+                ticket.getCreatedBy().getId(),
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+                Boolean.TRUE.equals(ticket.getIsPublic())
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.ticketmanager.monitoring;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL statements prepared, entities loaded and rows read or written on behalf of the current request.
+ *
+ * The stats follow the request thread, including afterCommit callbacks and the dispatches of an
+ * asynchronous request. Work the request hands to another thread is only counted when the task was
+ * wrapped with {@link #propagate(Runnable)} or submitted through {@link #propagating(Executor)}, as
+ * the password hashing pool does. Not tracked: scheduled jobs, startup, the outbox dispatcher, and
+ * the SSE sender threads, which run no SQL.
+ */
+public final class RequestSqlStats {
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    // Atomic: propagated tasks may run while the request thread is still working
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong entitiesLoaded = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private RequestSqlStats() {
+    }
+
+    static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void resume(RequestSqlStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The task, counted against the current request wherever it runs. Without a current request the
+     * task is returned as is.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestSqlStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * The executor, with every task counted against the request that submitted it.
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> executor.execute(propagate(task));
+    }
+
+    static void statementPrepared() {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.incrementAndGet();
+        }
+    }
+
+    static void entityLoaded() {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded.incrementAndGet();
+        }
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowsWritten(long rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.get();
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+}
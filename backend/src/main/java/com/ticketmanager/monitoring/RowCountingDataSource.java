@@ -0,0 +1,93 @@
+package com.ticketmanager.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the rows read and written through connections taken during a request, against that request
+ * (see {@link RequestSqlStats}). Bulk UPDATE and DELETE statements load no entities, so only the
+ * update counts show what they cost. Connections taken outside a request are returned unwrapped.
+ */
+public class RowCountingDataSource extends DelegatingDataSource {
+
+    public RowCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private static Connection track(Connection connection) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        return stats != null ? proxy(Connection.class, connection, stats) : connection;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, RequestSqlStats stats) {
+        return type.cast(Proxy.newProxyInstance(RowCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new Counting(target, stats)));
+    }
+
+    private record Counting(Object target, RequestSqlStats stats) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            Class<?> returnType = method.getReturnType();
+            if (result instanceof Statement && Statement.class.isAssignableFrom(returnType)) {
+                // createStatement, prepareStatement, prepareCall
+                return proxy(returnType, result, stats);
+            }
+            if (result instanceof ResultSet && returnType == ResultSet.class && target instanceof Statement) {
+                // executeQuery, getResultSet; generated keys are not rows read
+                return "getGeneratedKeys".equals(method.getName()) ? result : proxy(ResultSet.class, result, stats);
+            }
+            switch (method.getName()) {
+                case "next" -> {
+                    if (target instanceof ResultSet && Boolean.TRUE.equals(result)) {
+                        stats.rowRead();
+                    }
+                }
+                case "executeUpdate", "executeLargeUpdate" -> stats.rowsWritten(((Number) result).longValue());
+                case "executeBatch" -> {
+                    for (int rows : (int[]) result) {
+                        stats.rowsWritten(batchRows(rows));
+                    }
+                }
+                case "executeLargeBatch" -> {
+                    for (long rows : (long[]) result) {
+                        stats.rowsWritten(batchRows(rows));
+                    }
+                }
+                default -> {
+                }
+            }
+            return result;
+        }
+
+        // The driver reports rewritten batches without counts; each entry is one row then
+        private static long batchRows(long rows) {
+            return rows == Statement.SUCCESS_NO_INFO ? 1 : Math.max(rows, 0);
+        }
+    }
+}
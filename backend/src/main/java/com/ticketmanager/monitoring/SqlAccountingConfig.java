@@ -0,0 +1,58 @@
+package com.ticketmanager.monitoring;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Hooks Hibernate so every prepared statement and every loaded entity is counted against the
+ * current request, and the data source so every row read or written is (see {@link SqlBudgetFilter}).
+ */
+@Configuration
+public class SqlAccountingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlAccountingCustomizer() {
+        StatementInspector statementInspector = sql -> {
+            RequestSqlStats.statementPrepared();
+            return sql;
+        };
+        Interceptor interceptor = new Interceptor() {
+            @Override
+            public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+                RequestSqlStats.entityLoaded();
+                return false;
+            }
+        };
+
+        return properties -> {
+            // Chained with an inspector another customizer has set, so neither replaces the other
+            Object previous = properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, previous instanceof StatementInspector other
+                    ? (StatementInspector) sql -> statementInspector.inspect(other.inspect(sql))
+                    : statementInspector);
+            properties.put(AvailableSettings.INTERCEPTOR, interceptor);
+        };
+    }
+
+    // Static: post-processors are created before the rest of the configuration. Only the data source
+    // the application uses is wrapped; with replicas the pools behind it are left alone.
+    @Bean
+    public static BeanPostProcessor rowCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new RowCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
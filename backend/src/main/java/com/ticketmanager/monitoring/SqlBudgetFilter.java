@@ -0,0 +1,135 @@
+package com.ticketmanager.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the SQL statements, loaded entities and rows of each request per endpoint, and warns about
+ * requests over budget, which usually means an N+1 query pattern or an unbounded bulk statement
+ * slipped in. With {@code monitoring.sql.fail-over-budget} such requests fail instead, which the
+ * integration tests turn on.
+ *
+ * An asynchronous request is recorded once, at the end of its last dispatch, including the work of
+ * tasks propagated to other threads (see {@link RequestSqlStats}).
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    private static final String STATS_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".stats";
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final long entityBudget;
+    private final long rowBudget;
+    private final boolean failOverBudget;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry,
+                           @Value("${monitoring.sql.statement-budget:20}") int statementBudget,
+                           @Value("${monitoring.sql.entity-budget:2000}") long entityBudget,
+                           @Value("${monitoring.sql.row-budget:5000}") long rowBudget,
+                           @Value("${monitoring.sql.fail-over-budget:false}") boolean failOverBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.entityBudget = entityBudget;
+        this.rowBudget = rowBudget;
+        this.failOverBudget = failOverBudget;
+    }
+
+    // The async dispatch continues the stats of the dispatch that started the request
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = (RequestSqlStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = RequestSqlStats.begin();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        } else {
+            RequestSqlStats.resume(stats);
+        }
+
+        boolean overBudget;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            overBudget = !isAsyncStarted(request) && record(request, stats);
+        }
+        if (overBudget && failOverBudget) {
+            throw new IllegalStateException(String.format("%s %s exceeded its SQL budget: %s",
+                    request.getMethod(), uri(request), describe(stats)));
+        }
+    }
+
+    // Whether the request went over budget
+    private boolean record(HttpServletRequest request, RequestSqlStats stats) {
+        String uri = uri(request);
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.entities")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getEntitiesLoaded());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("operation", "read")
+                .register(meterRegistry)
+                .record(stats.getRowsRead());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("operation", "write")
+                .register(meterRegistry)
+                .record(stats.getRowsWritten());
+
+        if (stats.getStatements() <= statementBudget && stats.getEntitiesLoaded() <= entityBudget
+                && stats.getRowsRead() + stats.getRowsWritten() <= rowBudget) {
+            return false;
+        }
+        Counter.builder("http.server.requests.sql.over.budget")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        log.warn("{} {} exceeded its SQL budget: {}", method, uri, describe(stats));
+        return true;
+    }
+
+    private String describe(RequestSqlStats stats) {
+        return String.format("%d statements, %d entities, %d rows read, %d rows written (budget %d / %d / %d rows)",
+                stats.getStatements(), stats.getEntitiesLoaded(), stats.getRowsRead(), stats.getRowsWritten(),
+                statementBudget, entityBudget, rowBudget);
+    }
+
+    // Same uri tag as http.server.requests; unmatched requests are folded together
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,19 @@
+package com.ticketmanager.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Only logs notifications; the default for local development.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSender implements NotificationSender {
+    @Override
+    public void send(Notification notification) {
+        log.info("Notification {} to {} <{}>: ticket {} \"{}\"", notification.getType(), notification.getRecipientName(),
+                notification.getRecipientEmail(), notification.getTicketId(), notification.getTicketTitle());
+    }
+}
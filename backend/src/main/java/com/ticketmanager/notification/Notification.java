@@ -0,0 +1,22 @@
+package com.ticketmanager.notification;
+
+import com.ticketmanager.entity.NotificationType;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification ready to send. Delivery is at least once: receivers can deduplicate on {@code id}.
+ */
+@Value
+public class Notification {
+    Long id;
+    NotificationType type;
+    Long recipientId;
+    String recipientEmail;
+    String recipientName;
+    Long ticketId;
+    String ticketTitle;
+    Long replyId; // REPLY_ADDED only
+    LocalDateTime createdAt;
+}
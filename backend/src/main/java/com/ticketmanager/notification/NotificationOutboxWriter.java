@@ -0,0 +1,56 @@
+package com.ticketmanager.notification;
+
+import com.ticketmanager.entity.NotificationType;
+import com.ticketmanager.entity.OutboxMessage;
+import com.ticketmanager.event.TicketEvent;
+import com.ticketmanager.event.TicketSnapshot;
+import com.ticketmanager.repository.OutboxMessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Turns ticket events into outbox rows. Runs synchronously inside the publishing transaction, so a
+ * notification is stored if and only if the change it announces commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxWriter {
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    @EventListener
+    public void onTicketEvent(TicketEvent event) {
+        TicketSnapshot after = event.getAfter();
+        if (after == null || after.getAssignedToId() == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case TICKET_CREATED, TICKET_ASSIGNED, TICKET_UPDATED -> {
+                TicketSnapshot before = event.getBefore();
+                if (before == null || !Objects.equals(before.getAssignedToId(), after.getAssignedToId())) {
+                    enqueue(NotificationType.TICKET_ASSIGNED, after, null);
+                }
+            }
+            case REPLY_ADDED -> {
+                // Agents are not told about their own replies
+                if (!after.getAssignedToId().equals(event.getReplyAuthorId())) {
+                    enqueue(NotificationType.REPLY_ADDED, after, event.getReplyId());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void enqueue(NotificationType type, TicketSnapshot ticket, Long replyId) {
+        OutboxMessage message = new OutboxMessage();
+        message.setType(type);
+        message.setRecipientId(ticket.getAssignedToId());
+        message.setTicketId(ticket.getId());
+        message.setReplyId(replyId);
+        outboxMessageRepository.save(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ticketmanager.notification;
+
+/**
+ * Delivers notifications drained from the outbox. Exactly one implementation is active, chosen by
+ * {@code notifications.sender}; any other bean of this type, e.g. a recording fake, replaces it.
+ */
+public interface NotificationSender {
+    /**
+     * Sends one notification, throwing when it was not accepted; the dispatcher retries it later.
+     */
+    void send(Notification notification) throws Exception;
+}
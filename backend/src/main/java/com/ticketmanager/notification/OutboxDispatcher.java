@@ -0,0 +1,239 @@
+package com.ticketmanager.notification;
+
+import com.ticketmanager.entity.OutboxMessage;
+import com.ticketmanager.entity.OutboxStatus;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.OutboxMessageRepository;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.TicketTitle;
+import com.ticketmanager.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code notification_outbox} in batches. A batch is claimed in a short transaction: its rows
+ * are locked (skipping rows other instances hold) and leased by moving available_at to the end of
+ * the lease. The messages are sent outside any transaction, holding no locks or connection, and
+ * settled in a second short transaction: delivered messages are deleted, failed ones retried with
+ * exponential backoff until {@code max-attempts}, then kept as FAILED. A message whose lease ran out
+ * before it was settled, because sending took too long or the instance died, is claimed again,
+ * hence at-least-once delivery.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final NotificationSender sender;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+    private final Timer sendTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public OutboxDispatcher(OutboxMessageRepository outboxMessageRepository,
+                            TicketRepository ticketRepository,
+                            UserRepository userRepository,
+                            NotificationSender sender,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.enabled:true}") boolean enabled,
+                            @Value("${outbox.batch-size:50}") int batchSize,
+                            @Value("${outbox.max-batches:20}") int maxBatches,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.initial-backoff:5s}") Duration initialBackoff,
+                            @Value("${outbox.max-backoff:1h}") Duration maxBackoff,
+                            @Value("${outbox.lease:10m}") Duration lease) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.sender = sender;
+        this.transactionTemplate = transactionTemplate;
+        this.sentCounter = meterRegistry.counter("outbox.messages", "result", "sent");
+        this.retriedCounter = meterRegistry.counter("outbox.messages", "result", "retried");
+        this.failedCounter = meterRegistry.counter("outbox.messages", "result", "failed");
+        this.droppedCounter = meterRegistry.counter("outbox.messages", "result", "dropped");
+        this.sendTimer = meterRegistry.timer("outbox.send");
+        meterRegistry.gauge("outbox.pending", pending);
+        meterRegistry.gauge("outbox.lag.seconds", lagSeconds);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:1000}")
+    public void dispatch() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    void drain() {
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Batch claimed = transactionTemplate.execute(status -> claim());
+            if (claimed == null) {
+                break;
+            }
+            List<Failure> failures = send(claimed.deliveries());
+            settle(claimed, failures);
+            if (claimed.locked() < batchSize) {
+                break;
+            }
+        }
+
+        // Lag is how long the earliest due message has waited; messages backing off or leased are not due yet
+        LocalDateTime now = LocalDateTime.now();
+        pending.set(outboxMessageRepository.countByStatus(OutboxStatus.PENDING));
+        lagSeconds.set(outboxMessageRepository.findEarliestAvailableAt(OutboxStatus.PENDING)
+                .map(earliest -> Math.max(0, Duration.between(earliest, now).toSeconds()))
+                .orElse(0L));
+    }
+
+    private Batch claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> messages = outboxMessageRepository.lockDue(now, batchSize);
+        if (messages.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, User> recipients = userRepository.findAllById(messages.stream().map(OutboxMessage::getRecipientId).toList())
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, String> titles = ticketRepository.findTitlesByIdIn(messages.stream().map(OutboxMessage::getTicketId).toList())
+                .stream().collect(Collectors.toMap(TicketTitle::getId, TicketTitle::getTitle));
+
+        List<Long> dropped = new ArrayList<>();
+        List<Delivery> deliveries = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            User recipient = recipients.get(message.getRecipientId());
+            String title = titles.get(message.getTicketId());
+            // The ticket or the agent went away (deleted, or the ticket archived) before delivery
+            if (recipient == null || title == null) {
+                dropped.add(message.getId());
+                continue;
+            }
+            deliveries.add(new Delivery(message, new Notification(message.getId(), message.getType(), recipient.getId(),
+                    recipient.getEmail(), recipient.getName(), message.getTicketId(), title, message.getReplyId(),
+                    message.getCreatedAt())));
+        }
+        if (!dropped.isEmpty()) {
+            outboxMessageRepository.deleteAllByIdInBatch(dropped);
+            droppedCounter.increment(dropped.size());
+        }
+
+        // Whole seconds, as available_at stores them: settling compares the lease with the stored value
+        LocalDateTime leaseEnd = now.plus(lease).truncatedTo(ChronoUnit.SECONDS);
+        if (!deliveries.isEmpty()) {
+            outboxMessageRepository.lease(deliveries.stream().map(delivery -> delivery.message().getId()).toList(), leaseEnd);
+        }
+        return new Batch(messages.size(), leaseEnd, deliveries);
+    }
+
+    private List<Failure> send(List<Delivery> deliveries) {
+        List<Failure> failures = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            try {
+                sendTimer.recordCallable(() -> {
+                    sender.send(delivery.notification());
+                    return null;
+                });
+                sentCounter.increment();
+            } catch (Exception e) {
+                failures.add(new Failure(delivery.message(), e));
+            }
+        }
+        return failures;
+    }
+
+    // If this fails the messages stay leased, and are sent again once the lease ends
+    private void settle(Batch batch, List<Failure> failures) {
+        Set<Long> failed = failures.stream().map(failure -> failure.message().getId()).collect(Collectors.toSet());
+        List<Long> delivered = batch.deliveries().stream()
+                .map(delivery -> delivery.message().getId())
+                .filter(id -> !failed.contains(id))
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxMessageRepository.deleteAllByIdInBatch(delivered);
+            }
+            for (Failure failure : failures) {
+                fail(failure.message(), failure.error(), batch.leaseEnd(), now);
+            }
+        });
+    }
+
+    private void fail(OutboxMessage message, Exception e, LocalDateTime leaseEnd, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        String error = String.valueOf(e.getMessage());
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        if (attempts >= maxAttempts) {
+            if (record(message, leaseEnd, attempts, lastError, OutboxStatus.FAILED, now)) {
+                failedCounter.increment();
+                log.warn("Giving up on notification {} after {} attempts", message.getId(), attempts, e);
+            }
+            return;
+        }
+
+        // 5s, 10s, 20s... capped at max-backoff
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        LocalDateTime retryAt = now.plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+        if (record(message, leaseEnd, attempts, lastError, OutboxStatus.PENDING, retryAt)) {
+            retriedCounter.increment();
+            log.debug("Notification {} failed (attempt {}), retrying at {}", message.getId(), attempts, retryAt, e);
+        }
+    }
+
+    private boolean record(OutboxMessage message, LocalDateTime leaseEnd, int attempts, String lastError,
+                           OutboxStatus status, LocalDateTime availableAt) {
+        if (outboxMessageRepository.recordFailure(message.getId(), leaseEnd, attempts, lastError, status, availableAt) == 0) {
+            log.debug("Lease on notification {} ran out before it was settled, leaving it to its new holder", message.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private record Batch(int locked, LocalDateTime leaseEnd, List<Delivery> deliveries) {
+    }
+
+    private record Delivery(OutboxMessage message, Notification notification) {
+    }
+
+    private record Failure(OutboxMessage message, Exception error) {
+    }
+}
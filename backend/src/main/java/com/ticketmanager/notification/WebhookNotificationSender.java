@@ -0,0 +1,40 @@
+package com.ticketmanager.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * POSTs each notification as JSON to {@code notifications.webhook.url}, e.g. a mail or chat relay.
+ * Any non-2xx answer or timeout counts as a failed attempt.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "webhook")
+public class WebhookNotificationSender implements NotificationSender {
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookNotificationSender(@Value("${notifications.webhook.url}") String url,
+                                     @Value("${notifications.webhook.timeout:5s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) timeout.toMillis());
+        requestFactory.setReadTimeout((int) timeout.toMillis());
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.url = url;
+    }
+
+    @Override
+    public void send(Notification notification) {
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(notification)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
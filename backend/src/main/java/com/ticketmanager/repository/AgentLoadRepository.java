@@ -0,0 +1,66 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.AgentLoad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AgentLoadRepository extends JpaRepository<AgentLoad, Long> {
+    // Walks idx_agent_load_score from the least loaded agent and stops after :limit specialists. Read
+    // without locking: locking reads would lock every row scanned, specializations included, in scan order
+    @Query(value = "SELECT l.agent_id FROM agent_load l " +
+                   "JOIN agent_specializations s ON s.agent_id = l.agent_id AND s.problem_type_id = :problemTypeId " +
+                   "ORDER BY l.load_score, l.agent_id LIMIT :limit", nativeQuery = true)
+    List<Long> findLeastLoaded(@Param("problemTypeId") Long problemTypeId, @Param("limit") int limit);
+
+    // Locks the agent's row unless a concurrent transaction holds it
+    @Query(value = "SELECT agent_id FROM agent_load WHERE agent_id = :agentId FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> tryLock(@Param("agentId") Long agentId);
+
+    // Primary key order, the order in which every transaction locks several agents' rows
+    @Query(value = "SELECT agent_id FROM agent_load WHERE agent_id IN :agentIds ORDER BY agent_id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockAll(@Param("agentIds") Collection<Long> agentIds);
+
+    @Query(value = "SELECT DISTINCT agent_id FROM agent_specializations WHERE problem_type_id IN :problemTypeIds",
+           nativeQuery = true)
+    List<Long> findSpecialistIds(@Param("problemTypeIds") Collection<Long> problemTypeIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE agent_load SET active_tickets = GREATEST(active_tickets + :delta, 0) WHERE agent_id = :agentId",
+           nativeQuery = true)
+    int adjust(@Param("agentId") Long agentId, @Param("delta") int delta);
+
+    @Query("SELECT l.activeTickets FROM AgentLoad l WHERE l.agentId = :agentId")
+    Optional<Integer> findActiveTicketsByAgentId(@Param("agentId") Long agentId);
+
+    // Agents created while the in-memory tracker was in use have no row yet
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO agent_load (agent_id) SELECT id FROM users WHERE role = 'AGENT'", nativeQuery = true)
+    int insertMissingAgents();
+
+    @Query("SELECT l.agentId FROM AgentLoad l ORDER BY l.agentId")
+    List<Long> findAllAgentIds();
+
+    // Holds the agent's counter until the transaction ends, so no dispatch adjusts it meanwhile
+    @Query(value = "SELECT active_tickets FROM agent_load WHERE agent_id = :agentId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockActiveTickets(@Param("agentId") Long agentId);
+
+    @Query(value = "SELECT COUNT(*) FROM tickets WHERE assigned_to = :agentId AND status <> 'CLOSED'", nativeQuery = true)
+    int countActiveTickets(@Param("agentId") Long agentId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE agent_load SET active_tickets = :activeTickets WHERE agent_id = :agentId", nativeQuery = true)
+    int setActiveTickets(@Param("agentId") Long agentId, @Param("activeTickets") int activeTickets);
+}
@@ -0,0 +1,43 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedReply;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Same keyset and latest-replies queries as {@link ReplyRepository}, over the archive.
+ */
+@Repository
+public interface ArchivedReplyRepository extends JpaRepository<ArchivedReply, Long> {
+    @Query("SELECT r FROM ArchivedReply r JOIN FETCH r.user WHERE r.ticketId = :ticketId ORDER BY r.createdAt ASC, r.id ASC")
+    List<ArchivedReply> findFirstPage(@Param("ticketId") Long ticketId, Pageable limit);
+
+    @Query("SELECT r FROM ArchivedReply r JOIN FETCH r.user WHERE r.ticketId = :ticketId " +
+           "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    List<ArchivedReply> findPageAfter(@Param("ticketId") Long ticketId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable limit);
+
+    @Query(value = "SELECT latest.id FROM (" +
+                   "SELECT r.id, ROW_NUMBER() OVER (PARTITION BY r.ticket_id ORDER BY r.created_at DESC, r.id DESC) AS position " +
+                   "FROM archived_replies r WHERE r.ticket_id IN (:ticketIds)) latest " +
+                   "WHERE latest.position <= :count", nativeQuery = true)
+    List<Long> findLatestIdsByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds, @Param("count") int count);
+
+    @Query("SELECT r FROM ArchivedReply r JOIN FETCH r.user WHERE r.id IN :ids ORDER BY r.createdAt ASC, r.id ASC")
+    List<ArchivedReply> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_replies (id, ticket_id, user_id, content, created_at) " +
+                   "SELECT id, ticket_id, user_id, COMPRESS(content), created_at " +
+                   "FROM replies WHERE ticket_id IN (:ticketIds) AND created_at >= :since", nativeQuery = true)
+    int copyFromLive(@Param("ticketIds") Collection<Long> ticketIds, @Param("since") LocalDateTime since);
+}
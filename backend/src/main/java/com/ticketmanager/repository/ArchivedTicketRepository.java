@@ -0,0 +1,32 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedTicket;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTicketRepository extends JpaRepository<ArchivedTicket, Long> {
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    Optional<ArchivedTicket> findWithDetailsById(Long id);
+
+    @Query("SELECT new com.ticketmanager.repository.TicketVersion(t.version, t.isPublic, t.createdBy.id, t.assignedTo.id) " +
+           "FROM ArchivedTicket t WHERE t.id = :id")
+    Optional<TicketVersion> findVersionById(@Param("id") Long id);
+
+    // Set-based copy, so the live rows are never loaded into the persistence context
+    @Modifying
+    @Query(value = "INSERT INTO archived_tickets (id, title, description, status, priority, created_at, closed_at, " +
+                   "created_by, assigned_to, problem_type_id, is_public, version, reply_count) " +
+                   "SELECT id, title, COMPRESS(description), status, priority, created_at, closed_at, " +
+                   "created_by, assigned_to, problem_type_id, is_public, version, reply_count " +
+                   "FROM tickets WHERE id IN (:ids) AND created_at >= :since", nativeQuery = true)
+    int copyFromLive(@Param("ids") Collection<Long> ids, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,41 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.OutboxMessage;
+import com.ticketmanager.entity.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    // Messages locked by another dispatcher are skipped, so several instances can drain the outbox together
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND available_at <= :now " +
+                   "ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Claims the messages until the lease ends; they are due again then unless settled before
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.availableAt = :leaseEnd WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseEnd") LocalDateTime leaseEnd);
+
+    // Only while the lease is still the caller's: once it ran out, another dispatcher may have claimed the message
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.attempts = :attempts, o.lastError = :lastError, o.status = :status, " +
+           "o.availableAt = :availableAt WHERE o.id = :id AND o.availableAt = :leaseEnd")
+    int recordFailure(@Param("id") Long id, @Param("leaseEnd") LocalDateTime leaseEnd, @Param("attempts") int attempts,
+                      @Param("lastError") String lastError, @Param("status") OutboxStatus status,
+                      @Param("availableAt") LocalDateTime availableAt);
+
+    // Served by the (status, available_at) index
+    @Query("SELECT MIN(o.availableAt) FROM OutboxMessage o WHERE o.status = :status")
+    Optional<LocalDateTime> findEarliestAvailableAt(@Param("status") OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,54 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedReply;
+import com.ticketmanager.entity.Reply;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a reply thread: the creation time and id of the last reply of a page.
+ * Encoded as URL-safe Base64 so clients can pass it back verbatim.
+ */
+@Getter
+public class ReplyCursor {
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private ReplyCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static ReplyCursor after(Reply reply) {
+        return new ReplyCursor(reply.getCreatedAt(), reply.getId());
+    }
+
+    public static ReplyCursor after(ArchivedReply reply) {
+        return new ReplyCursor(reply.getCreatedAt(), reply.getId());
+    }
+
+    public static ReplyCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 2);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new ReplyCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = id + "|" + createdAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,13 +1,54 @@
 package com.ticketmanager.repository;
 
 import com.ticketmanager.entity.Reply;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReplyRepository extends JpaRepository<Reply, Long> {
-    List<Reply> findByTicketIdOrderByCreatedAtAsc(Long ticketId);
-}
+    // Keyset pages over the (ticket_id, created_at, id) index; pass the page size plus one as the limit.
+    // No reply predates its ticket, so the ticket's creation time bounds the partitions to read.
+    @Query("SELECT r FROM Reply r JOIN FETCH r.user WHERE r.ticket.id = :ticketId AND r.createdAt >= :since " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Reply> findFirstPage(@Param("ticketId") Long ticketId, @Param("since") LocalDateTime since, Pageable limit);
+
+    @Query("SELECT r FROM Reply r JOIN FETCH r.user WHERE r.ticket.id = :ticketId AND r.createdAt >= :createdAt " +
+           "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Reply> findPageAfter(@Param("ticketId") Long ticketId, @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id, Pageable limit);
+
+    // Ids of the newest :count replies of each ticket, ranked within the ticket by the thread index;
+    // :since is the oldest creation time among the tickets
+    @Query(value = "SELECT latest.id FROM (" +
+                   "SELECT r.id, ROW_NUMBER() OVER (PARTITION BY r.ticket_id ORDER BY r.created_at DESC, r.id DESC) AS position " +
+                   "FROM replies r WHERE r.ticket_id IN (:ticketIds) AND r.created_at >= :since) latest " +
+                   "WHERE latest.position <= :count", nativeQuery = true)
+    List<Long> findLatestIdsByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds, @Param("since") LocalDateTime since,
+                                         @Param("count") int count);
+
+    @Query("SELECT r FROM Reply r JOIN FETCH r.user WHERE r.id IN :ids AND r.createdAt >= :since " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Reply> findWithUserByIdIn(@Param("ids") Collection<Long> ids, @Param("since") LocalDateTime since);
 
+    // :since bounds the tickets' creation times, see TicketCreationBounds
+    @Modifying
+    @Query("DELETE FROM Reply r WHERE r.ticket.id IN :ticketIds AND r.createdAt >= :since")
+    int deleteByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds, @Param("since") LocalDateTime since);
+
+    // Search index documents, as (id, ticket id, content) rows in id order after :afterId
+    @Query("SELECT r.id, r.ticket.id, r.content FROM Reply r WHERE r.id > :afterId ORDER BY r.id ASC")
+    List<Object[]> findIndexPage(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT r.id, r.ticket.id, r.content FROM Reply r WHERE r.createdAt >= :since AND r.id > :afterId " +
+           "ORDER BY r.id ASC")
+    List<Object[]> findIndexPageSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Pageable limit);
+}
@@ -0,0 +1,75 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedTicket;
+import com.ticketmanager.entity.Ticket;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key value and id of the last ticket of a page.
+ * Encoded as URL-safe Base64 so clients can pass it back verbatim.
+ */
+@Getter
+public class TicketCursor implements Comparable<TicketCursor> {
+    private final TicketSort sort;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Long id;
+
+    private TicketCursor(TicketSort sort, Sort.Direction direction, Object value, Long id) {
+        this.sort = sort;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static TicketCursor after(Ticket ticket, TicketSort sort, Sort.Direction direction) {
+        return new TicketCursor(sort, direction, sort.valueOf(ticket), ticket.getId());
+    }
+
+    public static TicketCursor after(ArchivedTicket ticket, TicketSort sort, Sort.Direction direction) {
+        return new TicketCursor(sort, direction, sort.valueOf(ticket), ticket.getId());
+    }
+
+    /**
+     * Orders positions as the keyset queries do: by sort key, then id, in the cursor's direction.
+     * Enum keys compare by declaration order like the MySQL ENUM columns.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compareTo(TicketCursor other) {
+        int result = value != null ? ((Comparable<Object>) value).compareTo(other.value) : 0;
+        if (result == 0) {
+            result = id.compareTo(other.id);
+        }
+        return direction.isAscending() ? result : -result;
+    }
+
+    public static TicketCursor decode(String token, TicketSort sort, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[1].equals(sort.name()) || !parts[2].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            return new TicketCursor(sort, direction, sort.parseValue(parts[3]), Long.parseLong(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = id + "|" + sort.name() + "|" + direction.name() + "|" + (value != null ? value.toString() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
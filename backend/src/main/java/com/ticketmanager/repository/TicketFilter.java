@@ -0,0 +1,28 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketFilter {
+    private TicketStatus status;
+    private Priority priority;
+    private Long problemTypeId;
+    private Boolean isPublic;
+    private Long createdById;
+    private Long assignedToId;
+    // Creation time range, inclusive lower and exclusive upper bound; restricts the partitions read
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+
+    public TicketFilter(TicketStatus status, Priority priority, Long problemTypeId, Boolean isPublic) {
+        this(status, priority, problemTypeId, isPublic, null, null, null, null);
+    }
+}
@@ -3,37 +3,114 @@ package com.ticketmanager.repository;
 import com.ticketmanager.entity.Ticket;
 import com.ticketmanager.entity.TicketStatus;
 import com.ticketmanager.entity.Priority;
+import com.ticketmanager.event.TicketSnapshot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
     List<Ticket> findByAssignedToId(Long agentId);
     List<Ticket> findByCreatedById(Long userId);
     List<Ticket> findByProblemTypeId(Long problemTypeId);
     List<Ticket> findByIsPublic(Boolean isPublic);
-    
+
+    // Lookups by id are bounded below by the ticket's earliest possible creation time (see
+    // TicketCreationBounds), so they only read the partitions from that month on
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id AND t.createdAt >= :since")
+    Optional<Ticket> findWithDetailsById(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("SELECT t FROM Ticket t WHERE t.id IN :ids AND t.createdAt >= :since")
+    List<Ticket> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids, @Param("since") LocalDateTime since);
+
+    @Query("SELECT t.createdAt FROM Ticket t WHERE t.id = :id AND t.createdAt >= :since")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.ticketmanager.repository.TicketVersion(t.version, t.isPublic, t.createdBy.id, t.assignedTo.id) " +
+           "FROM Ticket t WHERE t.id = :id AND t.createdAt >= :since")
+    Optional<TicketVersion> findVersionById(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Atomic, so concurrent replies never conflict on the ticket's optimistic lock or lose a count
+    @Modifying
+    @Query("UPDATE Ticket t SET t.version = t.version + 1, t.replyCount = t.replyCount + 1 " +
+           "WHERE t.id = :id AND t.createdAt >= :since")
+    int registerReply(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.id IN :ids AND t.createdAt >= :since")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids, @Param("since") LocalDateTime since);
+
+    // The foreign key ids are read without joining
+    @Query("SELECT new com.ticketmanager.event.TicketSnapshot(t.id, t.status, t.priority, t.problemType.id, " +
+           "t.createdBy.id, t.assignedTo.id, t.isPublic) FROM Ticket t WHERE t.id IN :ids")
+    List<TicketSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Same, locking the ticket rows only
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.ticketmanager.event.TicketSnapshot(t.id, t.status, t.priority, t.problemType.id, " +
+           "t.createdBy.id, t.assignedTo.id, t.isPublic) FROM Ticket t WHERE t.id IN :ids")
+    List<TicketSnapshot> findSnapshotsForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.ticketmanager.repository.TicketTitle(t.id, t.title) FROM Ticket t WHERE t.id IN :ids")
+    List<TicketTitle> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    String WAITING = "SELECT id, priority, created_at FROM tickets WHERE problem_type_id IN :problemTypeIds " +
+                     "AND status = 'OPEN' AND assigned_to IS NULL ";
+
+    // Waiting tickets of the given problem types, best first: the priority's position in the comma-separated
+    // :priorities plus one level per aging interval waited. Read from the queue index without locking any of them.
+    // Within a priority the oldest ticket ranks first, so the best :limit are among each priority's :limit oldest:
+    // one branch per Priority reads those in index order, and only these candidates are sorted by rank. Tickets
+    // created in the same second may be cut off in either order. With several problem types a branch sorts its
+    // priority's waiting tickets of those types, as their ranges are merged
+    @Query(value = "SELECT id FROM (" +
+                   "(" + WAITING + "AND priority = 'HIGH' ORDER BY created_at LIMIT :limit) " +
+                   "UNION ALL (" + WAITING + "AND priority = 'MEDIUM' ORDER BY created_at LIMIT :limit) " +
+                   "UNION ALL (" + WAITING + "AND priority = 'LOW' ORDER BY created_at LIMIT :limit)" +
+                   ") candidates " +
+                   "ORDER BY FIND_IN_SET(priority, :priorities) + TIMESTAMPDIFF(SECOND, created_at, NOW()) / :agingSeconds DESC, id " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findRankedWaitingIds(@Param("problemTypeIds") Collection<Long> problemTypeIds,
+                                    @Param("priorities") String priorities,
+                                    @Param("agingSeconds") long agingSeconds,
+                                    @Param("limit") int limit);
+
+    // Locks the ticket if it is still waiting; one another agent is claiming is skipped, not waited for
+    @Query(value = "SELECT id FROM tickets WHERE id = :id AND created_at >= :since AND status = 'OPEN' " +
+                   "AND assigned_to IS NULL FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockIfWaiting(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    // Oldest first; rows locked by a concurrent batch or user update are skipped rather than waited for
+    @Query(value = "SELECT id FROM tickets WHERE status = 'CLOSED' AND closed_at < :cutoff " +
+                   "ORDER BY closed_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
     @Query("SELECT t FROM Ticket t WHERE t.problemType.id = :problemTypeId AND t.assignedTo IS NOT NULL")
     List<Ticket> findAssignedTicketsByProblemType(@Param("problemTypeId") Long problemTypeId);
     
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.assignedTo.id = :agentId AND t.status != 'CLOSED'")
     Long countActiveTicketsByAgent(@Param("agentId") Long agentId);
-    
-    @Query("SELECT t FROM Ticket t WHERE " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:priority IS NULL OR t.priority = :priority) AND " +
-           "(:problemTypeId IS NULL OR t.problemType.id = :problemTypeId) AND " +
-           "(:isPublic IS NULL OR t.isPublic = :isPublic)")
-    List<Ticket> findTicketsWithFilters(
-        @Param("status") TicketStatus status,
-        @Param("priority") Priority priority,
-        @Param("problemTypeId") Long problemTypeId,
-        @Param("isPublic") Boolean isPublic
-    );
-}
 
+    @Query("SELECT t.assignedTo.id, COUNT(t) FROM Ticket t WHERE t.assignedTo IS NOT NULL AND t.status != 'CLOSED' GROUP BY t.assignedTo.id")
+    List<Object[]> countActiveTicketsGroupedByAgent();
+
+    @Query("SELECT t.status, t.priority, p.id, a.id, COUNT(t) FROM Ticket t " +
+           "LEFT JOIN t.problemType p LEFT JOIN t.assignedTo a " +
+           "GROUP BY t.status, t.priority, p.id, a.id")
+    List<Object[]> countGroupedByStatusPriorityProblemTypeAndAssignee();
+}
@@ -0,0 +1,31 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedTicket;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TicketRepositoryCustom {
+    List<Ticket> findPage(TicketFilter filter, TicketSort sort, Sort.Direction direction, TicketCursor after, int limit);
+
+    /**
+     * Same filter, order and keyset as {@link #findPage}, over the archive.
+     */
+    List<ArchivedTicket> findArchivedPage(TicketFilter filter, TicketSort sort, Sort.Direction direction, TicketCursor after, int limit);
+
+    /**
+     * Same page as {@link #findPage}, but only the [id, version] of each ticket.
+     */
+    List<Object[]> findPageVersions(TicketFilter filter, TicketSort sort, Sort.Direction direction, TicketCursor after, int limit);
+
+    /**
+     * Sets the non-null values on all given tickets in a single UPDATE statement, increments their
+     * versions, maintains their closing time and returns the number of rows changed. Bypasses the persistence context.
+     */
+    int bulkUpdate(Collection<Long> ids, TicketStatus status, Priority priority, User assignee);
+}
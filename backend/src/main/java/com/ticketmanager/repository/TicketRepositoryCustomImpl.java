@@ -0,0 +1,184 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedTicket;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+public class TicketRepositoryCustomImpl implements TicketRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Ticket> findPage(TicketFilter filter, TicketSort sort, Sort.Direction direction, TicketCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ticket> query = cb.createQuery(Ticket.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        ticket.fetch("createdBy");
+        ticket.fetch("assignedTo", JoinType.LEFT);
+
+        query.select(ticket);
+        restrictToPage(cb, query, ticket, filter, sort, direction, after);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<ArchivedTicket> findArchivedPage(TicketFilter filter, TicketSort sort, Sort.Direction direction, TicketCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArchivedTicket> query = cb.createQuery(ArchivedTicket.class);
+        Root<ArchivedTicket> ticket = query.from(ArchivedTicket.class);
+        ticket.fetch("createdBy");
+        ticket.fetch("assignedTo", JoinType.LEFT);
+
+        query.select(ticket);
+        restrictToPage(cb, query, ticket, filter, sort, direction, after);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Object[]> findPageVersions(TicketFilter filter, TicketSort sort, Sort.Direction direction, TicketCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        query.multiselect(ticket.get("id"), ticket.get("version"));
+        restrictToPage(cb, query, ticket, filter, sort, direction, after);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int bulkUpdate(Collection<Long> ids, TicketStatus status, Priority priority, User assignee) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ticket> update = cb.createCriteriaUpdate(Ticket.class);
+        Root<Ticket> ticket = update.from(Ticket.class);
+        if (status != null) {
+            update.set(ticket.<TicketStatus>get("status"), status);
+            // Tickets that were closed already keep their original closing time
+            Path<LocalDateTime> closedAt = ticket.get("closedAt");
+            update.set(closedAt, status == TicketStatus.CLOSED
+                    ? cb.coalesce(closedAt, cb.localDateTime())
+                    : cb.nullLiteral(LocalDateTime.class));
+        }
+        if (priority != null) {
+            update.set(ticket.<Priority>get("priority"), priority);
+        }
+        if (assignee != null) {
+            update.set(ticket.<User>get("assignedTo"), assignee);
+        }
+        Path<Long> version = ticket.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.set(ticket.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(ticket.get("id").in(ids));
+
+        // Pending entity changes must reach the database before the statement runs
+        entityManager.flush();
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // Ticket and ArchivedTicket share the attribute names used here
+    private void restrictToPage(CriteriaBuilder cb, CriteriaQuery<?> query, Root<?> ticket, TicketFilter filter,
+                                TicketSort sort, Sort.Direction direction, TicketCursor after) {
+        List<Predicate> predicates = filterPredicates(cb, ticket, filter);
+        if (after != null) {
+            predicates.add(keysetPredicate(cb, ticket, sort, direction.isAscending(), after));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(direction.isAscending()
+                        ? List.of(cb.asc(ticket.get(sort.getAttribute())), cb.asc(ticket.get("id")))
+                        : List.of(cb.desc(ticket.get(sort.getAttribute())), cb.desc(ticket.get("id"))));
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<?> ticket, TicketFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(ticket.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(ticket.get("priority"), filter.getPriority()));
+        }
+        if (filter.getProblemTypeId() != null) {
+            predicates.add(cb.equal(ticket.get("problemType").get("id"), filter.getProblemTypeId()));
+        }
+        if (filter.getIsPublic() != null) {
+            predicates.add(cb.equal(ticket.get("isPublic"), filter.getIsPublic()));
+        }
+        if (filter.getCreatedById() != null) {
+            predicates.add(cb.equal(ticket.get("createdBy").get("id"), filter.getCreatedById()));
+        }
+        if (filter.getAssignedToId() != null) {
+            predicates.add(cb.equal(ticket.get("assignedTo").get("id"), filter.getAssignedToId()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(ticket.get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(ticket.get("createdAt"), filter.getCreatedTo()));
+        }
+        return predicates;
+    }
+
+    // (key, id) strictly beyond the cursor in the requested direction. Enum columns are MySQL ENUMs,
+    // which order by declaration index, so their comparison is expressed as an IN over the enum ordinals.
+    private Predicate keysetPredicate(CriteriaBuilder cb, Root<?> ticket, TicketSort sort, boolean ascending, TicketCursor cursor) {
+        Path<Long> id = ticket.get("id");
+        Predicate idBeyond = ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+        if (sort == TicketSort.ID) {
+            return idBeyond;
+        }
+
+        Path<Object> key = ticket.get(sort.getAttribute());
+        Predicate tie = cb.and(cb.equal(key, cursor.getValue()), idBeyond);
+        Predicate keyBeyond = switch (sort) {
+            case CREATED_AT -> {
+                Path<LocalDateTime> createdAt = ticket.get("createdAt");
+                LocalDateTime value = (LocalDateTime) cursor.getValue();
+                yield ascending ? cb.greaterThan(createdAt, value) : cb.lessThan(createdAt, value);
+            }
+            case PRIORITY -> enumBeyond(key, Priority.values(), (Priority) cursor.getValue(), ascending);
+            case STATUS -> enumBeyond(key, TicketStatus.values(), (TicketStatus) cursor.getValue(), ascending);
+            case ID -> null;
+        };
+        Predicate beyond = keyBeyond != null ? cb.or(keyBeyond, tie) : tie;
+        if (sort == TicketSort.CREATED_AT) {
+            // Implied by the disjunction, but spelled out as a plain range so the partitions on the
+            // far side of the cursor are pruned
+            Path<LocalDateTime> createdAt = ticket.get("createdAt");
+            LocalDateTime value = (LocalDateTime) cursor.getValue();
+            beyond = cb.and(ascending ? cb.greaterThanOrEqualTo(createdAt, value) : cb.lessThanOrEqualTo(createdAt, value), beyond);
+        }
+        return beyond;
+    }
+
+    private static <E extends Enum<E>> Predicate enumBeyond(Path<Object> key, E[] values, E current, boolean ascending) {
+        List<E> beyond = Arrays.stream(values)
+                .filter(value -> ascending ? value.ordinal() > current.ordinal() : value.ordinal() < current.ordinal())
+                .toList();
+        return beyond.isEmpty() ? null : key.in(beyond);
+    }
+}
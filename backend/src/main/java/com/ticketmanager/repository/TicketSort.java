@@ -0,0 +1,52 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.entity.ArchivedTicket;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+
+import java.time.LocalDateTime;
+
+public enum TicketSort {
+    CREATED_AT("createdAt"),
+    PRIORITY("priority"),
+    STATUS("status"),
+    ID("id");
+
+    private final String attribute;
+
+    TicketSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    Object valueOf(Ticket ticket) {
+        return switch (this) {
+            case CREATED_AT -> ticket.getCreatedAt();
+            case PRIORITY -> ticket.getPriority();
+            case STATUS -> ticket.getStatus();
+            case ID -> null;
+        };
+    }
+
+    Object valueOf(ArchivedTicket ticket) {
+        return switch (this) {
+            case CREATED_AT -> ticket.getCreatedAt();
+            case PRIORITY -> ticket.getPriority();
+            case STATUS -> ticket.getStatus();
+            case ID -> null;
+        };
+    }
+
+    Object parseValue(String value) {
+        return switch (this) {
+            case CREATED_AT -> LocalDateTime.parse(value);
+            case PRIORITY -> Priority.valueOf(value);
+            case STATUS -> TicketStatus.valueOf(value);
+            case ID -> null;
+        };
+    }
+}
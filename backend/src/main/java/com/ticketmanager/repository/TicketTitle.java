@@ -0,0 +1,9 @@
+package com.ticketmanager.repository;
+
+import lombok.Value;
+
+@Value
+public class TicketTitle {
+    Long id;
+    String title;
+}
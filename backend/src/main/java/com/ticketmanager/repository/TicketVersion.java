@@ -0,0 +1,15 @@
+package com.ticketmanager.repository;
+
+import lombok.Value;
+
+/**
+ * A ticket's version together with the fields needed for the read check, loaded without the
+ * ticket itself to answer conditional requests.
+ */
+@Value
+public class TicketVersion {
+    Long version;
+    Boolean isPublic;
+    Long createdById;
+    Long assignedToId;
+}
@@ -3,9 +3,11 @@ package com.ticketmanager.repository;
 import com.ticketmanager.entity.Role;
 import com.ticketmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,5 +20,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT DISTINCT u FROM User u JOIN u.specializations s WHERE s.id = :problemTypeId AND u.role = 'AGENT'")
     List<User> findAgentsByProblemType(@Param("problemTypeId") Long problemTypeId);
+
+    @Query("SELECT u.id, s.id FROM User u JOIN u.specializations s WHERE u.role = 'AGENT'")
+    List<Object[]> findAgentSpecializations();
+
+    @Query("SELECT s.id FROM User u JOIN u.specializations s WHERE u.id = :id")
+    List<Long> findSpecializationIdsById(@Param("id") Long id);
+
+    // Only replaces the hash it was computed from, never a password changed in the meantime
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :previous")
+    int updatePassword(@Param("id") Long id, @Param("previous") String previous, @Param("password") String password);
 }
 
@@ -0,0 +1,349 @@
+package com.ticketmanager.search;
+
+import com.ticketmanager.entity.Reply;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.security.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Embedded Lucene index over ticket titles, descriptions and reply contents. A ticket and each of its
+ * replies are separate documents, so a new reply adds one document instead of rewriting the ticket's.
+ * Documents are written after the surrounding transaction commits and become searchable on the
+ * next refresh.
+ *
+ * Segments live on local disk and are committed periodically, together with the time up to which
+ * the index is complete; on startup {@link TicketSearchIndexer} re-indexes what changed since then,
+ * or everything when the index is empty.
+ */
+@Slf4j
+@Component
+public class TicketSearchIndex {
+    // Ticket documents are keyed by ID, reply documents by REPLY_ID and point to their ticket
+    private static final String TYPE = "type";
+    private static final String TICKET_TYPE = "ticket";
+    private static final String REPLY_TYPE = "reply";
+    private static final String ID = "id";
+    private static final String REPLY_ID = "replyId";
+    private static final String TICKET_ID = "ticketId";
+    private static final String TITLE = "title";
+    private static final String BODY = "body";
+    private static final String CREATED_BY = "createdBy";
+    private static final String ASSIGNED_TO = "assignedTo";
+    private static final String PUBLIC = "public";
+
+    // Commit user data: the document layout, and the time up to which every change was indexed
+    private static final String FORMAT = "format";
+    private static final String FORMAT_VERSION = "2";
+    private static final String INDEXED_THROUGH = "indexedThrough";
+
+    // Reply hits read per requested result; replies the user may not see are dropped afterwards
+    private static final int REPLY_HITS_PER_RESULT = 4;
+
+    private final Path indexDir;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile LocalDateTime indexedThrough;
+    private volatile boolean catchingUp;
+
+    public TicketSearchIndex(@Value("${search.index-dir}") String indexDir) {
+        this.indexDir = Path.of(indexDir);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(indexDir);
+        directory = FSDirectory.open(indexDir);
+        boolean exists = DirectoryReader.indexExists(directory);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+
+        Map<String, String> commitData = new HashMap<>();
+        if (exists && writer.getLiveCommitData() != null) {
+            writer.getLiveCommitData().forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+        }
+        if (FORMAT_VERSION.equals(commitData.get(FORMAT)) && commitData.containsKey(INDEXED_THROUGH)) {
+            indexedThrough = LocalDateTime.parse(commitData.get(INDEXED_THROUGH));
+        } else if (exists) {
+            // Written with an older document layout, or never completed its first build
+            writer.deleteAll();
+        }
+
+        searcherManager = new SearcherManager(writer, null);
+        log.info("Search index opened at {} ({})", indexDir,
+                indexedThrough == null ? "to be rebuilt" : "complete through " + indexedThrough);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        commit();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Time up to which every committed change is in the index, as of the last index commit; empty
+     * when the index has to be built from scratch.
+     */
+    public Optional<LocalDateTime> getIndexedThrough() {
+        return Optional.ofNullable(indexedThrough);
+    }
+
+    /**
+     * Indexes (or re-indexes) a ticket's own fields once the current transaction commits; its
+     * replies are separate documents and stay as they are.
+     */
+    public void index(Ticket ticket) {
+        Document document = toDocument(ticket);
+        String id = ticket.getId().toString();
+        afterCommit(() -> writer.updateDocument(new Term(ID, id), document));
+    }
+
+    /**
+     * Adds a reply to its ticket's searchable text once the current transaction commits.
+     */
+    public void index(Reply reply) {
+        Document document = toDocument(reply.getId(), reply.getTicket().getId(), reply.getContent());
+        String id = reply.getId().toString();
+        afterCommit(() -> writer.updateDocument(new Term(REPLY_ID, id), document));
+    }
+
+    /**
+     * Removes a ticket and its replies once the current transaction commits.
+     */
+    public void remove(Long ticketId) {
+        String id = ticketId.toString();
+        afterCommit(() -> writer.deleteDocuments(new Term(ID, id), new Term(TICKET_ID, id)));
+    }
+
+    void put(Ticket ticket) {
+        update(new Term(ID, ticket.getId().toString()), toDocument(ticket));
+    }
+
+    void put(Long replyId, Long ticketId, String content) {
+        update(new Term(REPLY_ID, replyId.toString()), toDocument(replyId, ticketId, content));
+    }
+
+    /**
+     * While the index catches up with the database, commits keep the previous completion time, so a
+     * crash in between makes the next start repeat the catch-up.
+     */
+    void beginCatchUp() {
+        catchingUp = true;
+    }
+
+    void endCatchUp() throws IOException {
+        catchingUp = false;
+        commit(true);
+    }
+
+    /**
+     * BM25-ranked ticket ids for a query such as {@code printer jam*}, restricted to the tickets the
+     * user may read: admins see everything, agents public and assigned tickets, users public and own tickets.
+     * A ticket matches through its title and description or through one of its replies, and ranks
+     * by the best of those.
+     */
+    public List<Long> search(String text, AuthenticatedUser user, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, 2.0f, BODY, 1.0f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query parsed = parser.parse(text);
+        if (parsed == null) {
+            return List.of();
+        }
+
+        Query access = user.getRole() == Role.ADMIN ? null : new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(PUBLIC, "true")), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(user.getRole() == Role.AGENT ? ASSIGNED_TO : CREATED_BY,
+                        user.getId().toString())), BooleanClause.Occur.SHOULD)
+                .build();
+        BooleanQuery.Builder tickets = new BooleanQuery.Builder()
+                .add(parsed, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(TYPE, TICKET_TYPE)), BooleanClause.Occur.FILTER);
+        if (access != null) {
+            tickets.add(access, BooleanClause.Occur.FILTER);
+        }
+        Query replies = new BooleanQuery.Builder()
+                .add(parsed, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(TYPE, REPLY_TYPE)), BooleanClause.Occur.FILTER)
+                .build();
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                Map<Long, Float> scores = new HashMap<>();
+                for (ScoreDoc hit : searcher.search(tickets.build(), limit).scoreDocs) {
+                    scores.merge(Long.valueOf(storedFields.document(hit.doc).get(ID)), hit.score, Math::max);
+                }
+                Map<Long, Float> replyScores = new HashMap<>();
+                for (ScoreDoc hit : searcher.search(replies, limit * REPLY_HITS_PER_RESULT).scoreDocs) {
+                    replyScores.merge(Long.valueOf(storedFields.document(hit.doc).get(TICKET_ID)), hit.score, Math::max);
+                }
+
+                // Reply documents carry no access fields: their tickets are checked on the ticket documents
+                if (access != null) {
+                    List<BytesRef> unchecked = replyScores.keySet().stream()
+                            .filter(id -> !scores.containsKey(id))
+                            .map(id -> new BytesRef(id.toString()))
+                            .toList();
+                    Set<Long> visible = new HashSet<>(scores.keySet());
+                    if (!unchecked.isEmpty()) {
+                        Query readable = new BooleanQuery.Builder()
+                                .add(new TermInSetQuery(ID, unchecked), BooleanClause.Occur.FILTER)
+                                .add(access, BooleanClause.Occur.FILTER)
+                                .build();
+                        for (ScoreDoc hit : searcher.search(readable, unchecked.size()).scoreDocs) {
+                            visible.add(Long.valueOf(storedFields.document(hit.doc).get(ID)));
+                        }
+                    }
+                    replyScores.keySet().retainAll(visible);
+                }
+                replyScores.forEach((id, score) -> scores.merge(id, score, Math::max));
+
+                return scores.entrySet().stream()
+                        .sorted(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .limit(limit)
+                        .map(Map.Entry::getKey)
+                        .toList();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.refresh-interval:1000}")
+    void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * Commits pending documents with the time the commit started: every change whose transaction
+     * committed before then has been handed to the writer.
+     */
+    @Scheduled(fixedDelayString = "${search.commit-interval:30000}")
+    void commit() throws IOException {
+        commit(false);
+    }
+
+    private synchronized void commit(boolean force) throws IOException {
+        if (!force && !writer.hasUncommittedChanges()) {
+            return;
+        }
+        LocalDateTime through = catchingUp ? indexedThrough : LocalDateTime.now();
+        writer.setLiveCommitData(through == null
+                ? Map.<String, String>of().entrySet()
+                : Map.of(FORMAT, FORMAT_VERSION, INDEXED_THROUGH, through.toString()).entrySet());
+        writer.commit();
+        indexedThrough = through;
+    }
+
+    private Document toDocument(Ticket ticket) {
+        Document document = new Document();
+        document.add(new StringField(TYPE, TICKET_TYPE, Field.Store.NO));
+        document.add(new StringField(ID, ticket.getId().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, ticket.getTitle(), Field.Store.NO));
+        document.add(new TextField(BODY, ticket.getDescription(), Field.Store.NO));
+        document.add(new StringField(CREATED_BY, ticket.getCreatedBy().getId().toString(), Field.Store.NO));
+        if (ticket.getAssignedTo() != null) {
+            document.add(new StringField(ASSIGNED_TO, ticket.getAssignedTo().getId().toString(), Field.Store.NO));
+        }
+        document.add(new StringField(PUBLIC, ticket.getIsPublic().toString(), Field.Store.NO));
+        return document;
+    }
+
+    private Document toDocument(Long replyId, Long ticketId, String content) {
+        Document document = new Document();
+        document.add(new StringField(TYPE, REPLY_TYPE, Field.Store.NO));
+        document.add(new StringField(REPLY_ID, replyId.toString(), Field.Store.NO));
+        document.add(new StringField(TICKET_ID, ticketId.toString(), Field.Store.YES));
+        document.add(new TextField(BODY, content, Field.Store.NO));
+        return document;
+    }
+
+    private void update(Term key, Document document) {
+        try {
+            writer.updateDocument(key, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void afterCommit(IndexOperation operation) {
+        Runnable action = () -> {
+            try {
+                operation.run();
+            } catch (IOException e) {
+                log.error("Failed to update search index", e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void run() throws IOException;
+    }
+}
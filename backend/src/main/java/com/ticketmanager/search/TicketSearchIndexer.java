@@ -0,0 +1,140 @@
+package com.ticketmanager.search;
+
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.repository.ReplyRepository;
+import com.ticketmanager.repository.TicketCursor;
+import com.ticketmanager.repository.TicketFilter;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.service.TicketCreationBounds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Brings the search index up to date with the database on startup: documents written after the
+ * index's last commit were lost with the process, so tickets changed and replies created since then
+ * are indexed again. An empty index is populated from scratch, walking the tables in id order.
+ *
+ * The index is local to each instance, which only indexes its own writes as they commit. Writes made
+ * through other instances are picked up by a periodic sync of the tickets updated and replies created
+ * since the previous one, so every instance's index is eventually consistent with the database,
+ * within {@code search.sync-interval}. Tickets deleted or archived elsewhere are not seen by the sync:
+ * search results are loaded from the database, and hits it no longer has are removed then.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TicketSearchIndexer {
+    private static final int BATCH_SIZE = 500;
+
+    private final TicketSearchIndex searchIndex;
+    private final TicketRepository ticketRepository;
+    private final ReplyRepository replyRepository;
+    private final TicketCreationBounds creationBounds;
+
+    // Covers transactions that were still open when the index committed, and clock skew between instances
+    @Value("${search.catch-up-margin:5m}")
+    private Duration catchUpMargin;
+
+    // Start of the last catch-up or sync; everything committed before then is indexed. Null until
+    // the startup catch-up has finished
+    private LocalDateTime syncedThrough;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void catchUp() throws IOException {
+        LocalDateTime started = LocalDateTime.now();
+        Optional<LocalDateTime> indexedThrough = searchIndex.getIndexedThrough();
+        searchIndex.beginCatchUp();
+
+        int tickets;
+        int replies;
+        if (indexedThrough.isPresent()) {
+            LocalDateTime since = indexedThrough.get().minus(catchUpMargin);
+            log.info("Search index is complete through {}, indexing changes since {}", indexedThrough.get(), since);
+            tickets = indexTicketsUpdatedSince(since);
+            replies = indexReplies(afterId -> replyRepository.findIndexPageSince(since, afterId, PageRequest.ofSize(BATCH_SIZE)));
+        } else {
+            log.info("Search index is empty, indexing existing tickets");
+            tickets = indexAllTickets();
+            replies = indexReplies(afterId -> replyRepository.findIndexPage(afterId, PageRequest.ofSize(BATCH_SIZE)));
+        }
+
+        // Not reached on failure: later commits keep the previous state and the next start tries again
+        searchIndex.endCatchUp();
+        syncedThrough = started;
+        log.info("Indexed {} tickets and {} replies", tickets, replies);
+    }
+
+    /**
+     * Indexes the tickets updated and the replies created since the last catch-up or sync, minus the
+     * margin, which covers other instances' clocks and transactions still open back then.
+     */
+    @Scheduled(fixedDelayString = "${search.sync-interval:60000}")
+    public synchronized void sync() {
+        if (syncedThrough == null) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = syncedThrough.minus(catchUpMargin);
+        int tickets = indexTicketsUpdatedSince(since);
+        int replies = indexReplies(afterId -> replyRepository.findIndexPageSince(since, afterId, PageRequest.ofSize(BATCH_SIZE)));
+        syncedThrough = started;
+        log.debug("Search index synced: {} tickets and {} replies since {}", tickets, replies, since);
+    }
+
+    private int indexAllTickets() {
+        TicketCursor cursor = null;
+        int indexed = 0;
+        while (true) {
+            List<Ticket> tickets = ticketRepository.findPage(new TicketFilter(), TicketSort.ID, Sort.Direction.ASC, cursor, BATCH_SIZE);
+            tickets.forEach(searchIndex::put);
+            indexed += tickets.size();
+
+            if (tickets.size() < BATCH_SIZE) {
+                return indexed;
+            }
+            cursor = TicketCursor.after(tickets.get(tickets.size() - 1), TicketSort.ID, Sort.Direction.ASC);
+        }
+    }
+
+    private int indexTicketsUpdatedSince(LocalDateTime since) {
+        List<Long> ids = ticketRepository.findIdsUpdatedSince(since);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            ticketRepository.findWithDetailsByIdIn(batch, creationBounds.since(batch)).forEach(searchIndex::put);
+        }
+        return ids.size();
+    }
+
+    // Pages of (reply id, ticket id, content) rows in reply id order, starting after the given id
+    private int indexReplies(Function<Long, List<Object[]>> pageAfter) {
+        long afterId = 0;
+        int indexed = 0;
+        while (true) {
+            List<Object[]> rows = pageAfter.apply(afterId);
+            for (Object[] row : rows) {
+                searchIndex.put((Long) row[0], (Long) row[1], (String) row[2]);
+            }
+            indexed += rows.size();
+
+            if (rows.size() < BATCH_SIZE) {
+                return indexed;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ticketmanager.security;
+
+import com.ticketmanager.entity.Role;
+import lombok.Value;
+
+import java.security.Principal;
+
+/**
+ * Principal built from a verified JWT. Carries everything the services need for access
+ * checks, so authenticated requests never have to load the user row.
+ */
+@Value
+public class AuthenticatedUser implements Principal {
+    Long id;
+    String email;
+    Role role;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
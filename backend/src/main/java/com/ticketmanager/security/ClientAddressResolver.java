@@ -0,0 +1,66 @@
+package com.ticketmanager.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The address of the client behind a request, for keying per-client limits. Behind a reverse proxy
+ * the connection comes from the proxy, so X-Forwarded-For is followed from the right for as long as
+ * the hop it came from is a trusted proxy; entries further left were written by the client and are
+ * ignored. Without trusted proxies the header is never read, since any client can send it.
+ */
+@Component
+public class ClientAddressResolver {
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    // Only literal addresses are matched: IpAddressMatcher would resolve a host name through DNS
+    private static final Pattern IP_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}|[0-9a-fA-F]*:[0-9a-fA-F:.]*");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(@Value("${auth.trusted-proxies:}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (trustedProxies.isEmpty()) {
+            return address;
+        }
+        // Several headers are one list, in order
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(FORWARDED_FOR))) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0 && isTrustedProxy(address); i--) {
+            address = hops.get(i);
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+        } catch (IllegalArgumentException e) {
+            return false; // malformed
+        }
+    }
+}
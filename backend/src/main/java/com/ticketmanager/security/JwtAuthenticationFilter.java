@@ -1,23 +1,29 @@
 package com.ticketmanager.security;
 
+import com.ticketmanager.entity.User;
+import com.ticketmanager.exception.ResourceNotFoundException;
 import com.ticketmanager.service.UserService;
 import com.ticketmanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationList revocationList;
     private final UserService userService;
 
     @Override
@@ -25,23 +31,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String token = authHeader.substring(7);
-            String email = jwtUtil.getEmailFromToken(token);
+            VerifiedToken verified = tokenCache.get(token, this::verify);
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userService.loadUserByUsername(email);
-
-                if (jwtUtil.validateToken(token)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            // Checked after the cache, which cannot know about revocations made since it verified the token
+            if (verified != null && !revocationList.isRevoked(verified.getTokenId())) {
+                AuthenticatedUser principal = verified.getPrincipal();
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private VerifiedToken verify(String token) {
+        Claims claims = jwtUtil.verify(token);
+        if (claims == null) {
+            return null;
+        }
+
+        AuthenticatedUser principal = jwtUtil.toPrincipal(claims);
+        if (principal == null) {
+            // Token issued before the id and role claims existed: resolve the user once, the result is cached
+            try {
+                User user = userService.findByEmail(claims.getSubject());
+                principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+            } catch (ResourceNotFoundException e) {
+                return null;
+            }
+        }
+        return new VerifiedToken(principal, claims.getId(), jwtUtil.getExpiresAt(claims));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ticketmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketmanager.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets limiting sign-in and registration attempts per client address and per account and
+ * client address, so no single client can occupy the password hashing pool or keep guessing one
+ * account's password. The account limit is per address: attempts from elsewhere cannot lock the
+ * owner out of their account. Idle buckets are evicted once they would have refilled anyway.
+ */
+@Component
+public class LoginThrottle {
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final int ipCapacity;
+    private final Duration ipRefillPeriod;
+    private final int accountCapacity;
+    private final Duration accountRefillPeriod;
+
+    public LoginThrottle(@Value("${auth.throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${auth.throttle.ip.refill-period:3s}") Duration ipRefillPeriod,
+                         @Value("${auth.throttle.account.capacity:5}") int accountCapacity,
+                         @Value("${auth.throttle.account.refill-period:30s}") Duration accountRefillPeriod,
+                         @Value("${auth.throttle.max-tracked:100000}") long maxTracked) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPeriod = ipRefillPeriod;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPeriod = accountRefillPeriod;
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(ipRefillPeriod.multipliedBy(ipCapacity))
+                .build();
+        this.accountBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(accountRefillPeriod.multipliedBy(accountCapacity))
+                .build();
+    }
+
+    /**
+     * Takes one attempt from both the client's bucket and the bucket of the account at this client,
+     * or throws when either is empty.
+     */
+    public void acquire(String clientAddress, String account) {
+        TokenBucket ipBucket = ipBuckets.get(clientAddress, key -> new TokenBucket(ipCapacity, ipRefillPeriod));
+        long retryAfter = ipBucket.tryConsume();
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many attempts from this address, try again later", retryAfter);
+        }
+
+        String accountKey = account.trim().toLowerCase(Locale.ROOT) + " " + clientAddress;
+        TokenBucket accountBucket = accountBuckets.get(accountKey, key -> new TokenBucket(accountCapacity, accountRefillPeriod));
+        retryAfter = accountBucket.tryConsume();
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many attempts for this account from this address, try again later",
+                    retryAfter);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final long refillNanos;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillNanos = refillPeriod.toNanos();
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        /**
+         * Consumes a token and returns 0, or returns the seconds until the next token is available.
+         */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / refillNanos);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            long waitNanos = (long) ((1 - tokens) * refillNanos);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+}
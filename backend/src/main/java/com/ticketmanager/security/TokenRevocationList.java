@@ -0,0 +1,114 @@
+package com.ticketmanager.security;
+
+import com.ticketmanager.entity.RevokedToken;
+import com.ticketmanager.repository.RefreshTokenRepository;
+import com.ticketmanager.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the revoked access tokens, checked on every authenticated request. A Bloom
+ * filter answers for the tokens that were never revoked, nearly all of them, and the exact set
+ * settles its false positives. Loaded from {@code revoked_tokens} at startup and polled for
+ * revocations made by other instances; entries go once the token they revoke has expired.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final long minimumCapacity;
+    private final Duration pollOverlap;
+    private volatile BloomFilter filter;
+    private LocalDateTime lastPoll;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.revocation.expected:10000}") long minimumCapacity,
+                               @Value("${jwt.revocation.poll-overlap:30s}") Duration pollOverlap) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.minimumCapacity = minimumCapacity;
+        this.pollOverlap = pollOverlap;
+        this.filter = new BloomFilter(minimumCapacity, FALSE_POSITIVE_RATE);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Records a revocation on this instance right away; other instances pick it up from the table.
+     */
+    public void add(String tokenId, LocalDateTime expiresAt) {
+        // Serialized with rebuilds, so a token is never added to a filter that is about to be replaced
+        synchronized (writeLock) {
+            revoked.put(tokenId, expiresAt);
+            if (revoked.size() > filter.capacity()) {
+                rebuild();
+            } else {
+                filter.add(tokenId);
+            }
+        }
+    }
+
+    // Before the web server starts, so no request is ever checked against an empty list
+    @PostConstruct
+    void load() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (writeLock) {
+            revokedTokenRepository.findByExpiresAtAfter(now)
+                    .forEach(token -> revoked.put(token.getTokenId(), token.getExpiresAt()));
+            rebuild();
+            lastPoll = now;
+        }
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:2000}")
+    void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        // Overlaps the previous poll: a revocation committed late can carry an earlier timestamp.
+        // Adding an entry twice is harmless.
+        for (RevokedToken token : revokedTokenRepository.findActiveRevokedSince(lastPoll.minus(pollOverlap), now)) {
+            if (!revoked.containsKey(token.getTokenId())) {
+                add(token.getTokenId(), token.getExpiresAt());
+            }
+        }
+        lastPoll = now;
+    }
+
+    /**
+     * Forgets tokens that have expired by now and deletes expired rows from both token tables.
+     * Bloom filters cannot remove entries, so the filter is rebuilt from what is left.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval:3600000}")
+    void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (writeLock) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            rebuild();
+        }
+        int revokedDeleted = revokedTokenRepository.deleteExpired(now);
+        int refreshDeleted = refreshTokenRepository.deleteExpired(now);
+        log.debug("Deleted {} expired revocations and {} expired refresh tokens", revokedDeleted, refreshDeleted);
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(minimumCapacity, revoked.size() * 2L), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ticketmanager.security;
+
+import lombok.Value;
+
+@Value
+public class VerifiedToken {
+    AuthenticatedUser principal;
+    String tokenId; // null for tokens issued before ids were added
+    long expiresAt; // see JwtUtil.getExpiresAt
+}
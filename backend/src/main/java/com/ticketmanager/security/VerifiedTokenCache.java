@@ -0,0 +1,61 @@
+package com.ticketmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of tokens whose signature has already been checked. Entries live for the
+ * configured TTL but never past the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.ttl:300000}") long ttlMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        long remaining = verified.getExpiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(ttlMillis, remaining)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        // Verified outside the cache's compute lock: the fallback lookup does I/O, which would pin a
+        // virtual thread. Concurrent misses for the same token just verify it twice.
+        VerifiedToken verified = cache.getIfPresent(token);
+        if (verified == null) {
+            verified = verifier.apply(token);
+            if (verified == null) {
+                return null;
+            }
+            cache.put(token, verified);
+        }
+        if (verified.getExpiresAt() <= System.currentTimeMillis()) {
+            cache.invalidate(token);
+            return null;
+        }
+        return verified;
+    }
+}
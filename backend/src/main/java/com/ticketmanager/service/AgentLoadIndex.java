@@ -0,0 +1,235 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory count of active (non-closed) tickets per agent, ordered per problem type so that
+ * auto-dispatch can pick the least loaded specialist without querying the database.
+ *
+ * Each agent's entries are only rewritten under that agent's lock stripe; readers of the
+ * per-problem-type sets never block. Changes made inside a transaction are reverted if it rolls back.
+ * The counts are local to this instance: with several instances, use the database tracker.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dispatch.load-tracker", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AgentLoadIndex implements AgentLoadTracker {
+    private static final int STRIPES = 64;
+    private static final Comparator<LoadEntry> LEAST_LOADED =
+            Comparator.comparingInt(LoadEntry::active).thenComparingLong(LoadEntry::agentId);
+
+    private final UserRepository userRepository;
+    private final TicketRepository ticketRepository;
+
+    private final Map<Long, AgentLoad> agents = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentSkipListSet<LoadEntry>> byProblemType = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void seed() {
+        Map<Long, Set<Long>> specializations = new HashMap<>();
+        for (Object[] row : userRepository.findAgentSpecializations()) {
+            specializations.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+
+        Map<Long, Integer> activeCounts = new HashMap<>();
+        for (Object[] row : ticketRepository.countActiveTicketsGroupedByAgent()) {
+            activeCounts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+
+        specializations.forEach((agentId, problemTypeIds) ->
+                register(agentId, problemTypeIds, activeCounts.getOrDefault(agentId, 0)));
+        log.info("Agent load index seeded with {} agents", specializations.size());
+    }
+
+    /**
+     * Makes a newly created agent available for dispatch once the creating transaction commits.
+     * Agents are not weighted here: the capacity is ignored.
+     */
+    @Override
+    public void registerAgent(Long agentId, Set<Long> problemTypeIds, int capacity) {
+        afterCommit(() -> register(agentId, problemTypeIds, 0));
+    }
+
+    /**
+     * Picks the specialist with the fewest active tickets and counts the new ticket against them.
+     */
+    @Override
+    public Optional<Long> claimLeastLoaded(Long problemTypeId) {
+        ConcurrentSkipListSet<LoadEntry> candidates = byProblemType.get(problemTypeId);
+        if (candidates == null) {
+            return Optional.empty();
+        }
+
+        while (true) {
+            LoadEntry first;
+            try {
+                first = candidates.first();
+            } catch (NoSuchElementException e) {
+                return Optional.empty();
+            }
+
+            ReentrantLock lock = stripe(first.agentId());
+            lock.lock();
+            try {
+                AgentLoad load = agents.get(first.agentId());
+                // A concurrent update may have replaced this entry; retry with the fresh head
+                if (load != null && load.active == first.active()) {
+                    update(first.agentId(), load, load.active + 1);
+                    revertOnRollback(first.agentId(), 1);
+                    return Optional.of(first.agentId());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void increment(Long agentId) {
+        revertOnRollback(agentId, adjust(agentId, 1));
+    }
+
+    @Override
+    public void decrement(Long agentId) {
+        revertOnRollback(agentId, adjust(agentId, -1));
+    }
+
+    @Override
+    public int activeTickets(Long agentId) {
+        AgentLoad load = agents.get(agentId);
+        return load != null ? load.active : 0;
+    }
+
+    private void register(Long agentId, Set<Long> problemTypeIds, int active) {
+        ReentrantLock lock = stripe(agentId);
+        lock.lock();
+        try {
+            AgentLoad load = new AgentLoad(Set.copyOf(problemTypeIds), active);
+            agents.put(agentId, load);
+            for (Long problemTypeId : load.problemTypeIds) {
+                byProblemType.computeIfAbsent(problemTypeId, id -> new ConcurrentSkipListSet<>(LEAST_LOADED))
+                        .add(new LoadEntry(active, agentId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The count never drops below 0, so the change applied can be smaller than the one asked for
+    private int adjust(Long agentId, int delta) {
+        if (agentId == null) {
+            return 0;
+        }
+        ReentrantLock lock = stripe(agentId);
+        lock.lock();
+        try {
+            AgentLoad load = agents.get(agentId);
+            if (load == null) {
+                return 0;
+            }
+            int previous = load.active;
+            update(agentId, load, Math.max(0, previous + delta));
+            return load.active - previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the agent's stripe. The new entry is added before the old one is removed so
+    // the agent never disappears from the candidate sets.
+    private void update(Long agentId, AgentLoad load, int active) {
+        if (active == load.active) {
+            return;
+        }
+        LoadEntry previous = new LoadEntry(load.active, agentId);
+        LoadEntry current = new LoadEntry(active, agentId);
+        for (Long problemTypeId : load.problemTypeIds) {
+            ConcurrentSkipListSet<LoadEntry> entries = byProblemType.get(problemTypeId);
+            entries.add(current);
+            entries.remove(previous);
+        }
+        load.active = active;
+    }
+
+    // Reverts the changes actually applied, not the ones asked for. They are summed per agent and
+    // transaction, so a revert is not clamped where the changes it undoes were not
+    private void revertOnRollback(Long agentId, int applied) {
+        if (agentId == null || applied == 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Integer> changes = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Map<Long, Integer> pending = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(AgentLoadIndex.this);
+                    if (status == STATUS_ROLLED_BACK) {
+                        pending.forEach((id, sum) -> adjust(id, -sum));
+                    }
+                }
+            });
+            changes = pending;
+        }
+        changes.merge(agentId, applied, Integer::sum);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private ReentrantLock stripe(Long agentId) {
+        return stripes[(int) Math.floorMod(agentId, (long) STRIPES)];
+    }
+
+    private record LoadEntry(int active, long agentId) {
+    }
+
+    private static final class AgentLoad {
+        private final Set<Long> problemTypeIds;
+        private volatile int active;
+
+        private AgentLoad(Set<Long> problemTypeIds, int active) {
+            this.problemTypeIds = problemTypeIds;
+            this.active = active;
+        }
+    }
+}
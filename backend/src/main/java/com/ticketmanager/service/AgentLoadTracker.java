@@ -0,0 +1,49 @@
+package com.ticketmanager.service;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Counts active (non-closed) tickets per agent for auto-dispatch. Calls are made inside the
+ * transaction that changes the ticket, and their effect follows its outcome.
+ *
+ * A count may be locked until the transaction ends, and counts are always locked before tickets:
+ * a change is counted before its ticket row is written, and a change that counts against several
+ * agents locks them all first with {@link #lock}.
+ *
+ * {@code dispatch.load-tracker} selects the implementation: {@code memory} ({@link AgentLoadIndex},
+ * one instance only) or {@code database} ({@link DatabaseAgentLoadTracker}, shared by all instances).
+ */
+public interface AgentLoadTracker {
+    /**
+     * Makes a newly created agent available for dispatch. {@code capacity} weights the agent's load;
+     * only the database tracker honors it.
+     */
+    void registerAgent(Long agentId, Set<Long> problemTypeIds, int capacity);
+
+    /**
+     * Picks the least loaded specialist of the problem type and counts the new ticket against them.
+     */
+    Optional<Long> claimLeastLoaded(Long problemTypeId);
+
+    /**
+     * Locks the counts of the agents, in ascending id order, until the transaction ends. Null ids are
+     * ignored.
+     */
+    default void lock(Collection<Long> agentIds) {
+    }
+
+    /**
+     * Locks the counts of every specialist of the problem types, before several tickets are dispatched
+     * in one transaction.
+     */
+    default void lockSpecialists(Collection<Long> problemTypeIds) {
+    }
+
+    void increment(Long agentId);
+
+    void decrement(Long agentId);
+
+    int activeTickets(Long agentId);
+}
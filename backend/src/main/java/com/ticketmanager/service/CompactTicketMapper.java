@@ -0,0 +1,69 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.dto.CompactReplyResponse;
+import com.ticketmanager.dto.CompactTicketPageResponse;
+import com.ticketmanager.dto.CompactTicketResponse;
+import com.ticketmanager.dto.ProblemTypeResponse;
+import com.ticketmanager.dto.ReplyResponse;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.dto.UserResponse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites ticket responses into the normalized {@link CompactTicketPageResponse} shape.
+ */
+public final class CompactTicketMapper {
+    private CompactTicketMapper() {
+    }
+
+    public static CompactTicketPageResponse toPage(List<TicketResponse> tickets, String nextCursor) {
+        Map<Long, UserResponse> users = new LinkedHashMap<>();
+        Map<Long, ProblemTypeResponse> problemTypes = new LinkedHashMap<>();
+        List<CompactTicketResponse> items = tickets.stream()
+                .map(ticket -> toTicket(ticket, users, problemTypes))
+                .toList();
+        return new CompactTicketPageResponse(items, users, problemTypes, nextCursor);
+    }
+
+    private static CompactTicketResponse toTicket(TicketResponse ticket, Map<Long, UserResponse> users,
+                                                  Map<Long, ProblemTypeResponse> problemTypes) {
+        List<CompactReplyResponse> replies = ticket.getReplies().stream()
+                .map(reply -> toReply(reply, users))
+                .toList();
+        return new CompactTicketResponse(
+                ticket.getId(),
+                ticket.getTitle(),
+                ticket.getDescription(),
+                ticket.getStatus(),
+                ticket.getPriority(),
+                ticket.getCreatedAt(),
+                reference(ticket.getCreatedBy(), users),
+                reference(ticket.getAssignedTo(), users),
+                ticket.getProblemType() != null ? reference(ticket.getProblemType(), problemTypes) : null,
+                ticket.getIsPublic(),
+                ticket.getReplyCount(),
+                replies,
+                ticket.getVersion()
+        );
+    }
+
+    private static CompactReplyResponse toReply(ReplyResponse reply, Map<Long, UserResponse> users) {
+        return new CompactReplyResponse(reply.getId(), reply.getContent(), reply.getCreatedAt(), reference(reply.getUser(), users));
+    }
+
+    private static Long reference(UserResponse user, Map<Long, UserResponse> users) {
+        if (user == null) {
+            return null;
+        }
+        users.putIfAbsent(user.getId(), user);
+        return user.getId();
+    }
+
+    private static Long reference(ProblemTypeResponse problemType, Map<Long, ProblemTypeResponse> problemTypes) {
+        problemTypes.putIfAbsent(problemType.getId(), problemType);
+        return problemType.getId();
+    }
+}
@@ -0,0 +1,139 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.entity.AgentLoad;
+import com.ticketmanager.repository.AgentLoadRepository;
+import com.ticketmanager.util.NamedLock;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Agent load kept in the {@code agent_load} table, so that several backend instances dispatch
+ * against the same counts.
+ *
+ * Every change locks the agents' rows until the transaction ends, before the ticket rows it counts
+ * are written: a claim locks the chosen agent's row, so concurrent dispatches on any instance move on
+ * to the next least loaded agent instead of overloading the same one, and increments and decrements
+ * update the row when called. Several agents are locked in ascending id order by {@link #lock}.
+ * Ticket rows are only ever locked after agent rows, so the two cannot deadlock.
+ *
+ * On startup the counts are repaired while other instances keep dispatching, e.g. during a rolling
+ * deploy. Each agent is recounted in a transaction of its own that locks the agent's row first:
+ * transactions that already adjusted the agent have committed by then and are counted, and those
+ * still to adjust it wait and apply their change on top of the new count.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dispatch.load-tracker", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseAgentLoadTracker implements AgentLoadTracker {
+    private static final String RECONCILE_LOCK = "agent-load-reconcile";
+    // Least loaded specialists a claim tries before it waits for the first of them
+    private static final int CLAIM_CANDIDATES = 5;
+
+    private final AgentLoadRepository agentLoadRepository;
+    private final NamedLock namedLock;
+    private final PlatformTransactionManager transactionManager;
+
+    // Repairs counts left behind while the in-memory tracker was in use. One instance at a time: one
+    // that starts meanwhile skips it and dispatches on the counts being repaired
+    @PostConstruct
+    void reconcile() {
+        if (!namedLock.tryRun(RECONCILE_LOCK, this::recountAll)) {
+            log.info("Agent load is being reconciled by another instance, skipped");
+        }
+    }
+
+    private void recountAll() {
+        // Read committed, so the users are read without gap locks, and the count sees every ticket
+        // committed before the agent's row lock was granted
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        Integer inserted = transaction.execute(status -> agentLoadRepository.insertMissingAgents());
+        int corrected = 0;
+        for (Long agentId : agentLoadRepository.findAllAgentIds()) {
+            Boolean changed = transaction.execute(status -> {
+                Optional<Integer> counted = agentLoadRepository.lockActiveTickets(agentId);
+                int actual = agentLoadRepository.countActiveTickets(agentId);
+                return counted.isPresent() && counted.get() != actual
+                        && agentLoadRepository.setActiveTickets(agentId, actual) > 0;
+            });
+            if (Boolean.TRUE.equals(changed)) {
+                corrected++;
+            }
+        }
+        log.info("Agent load table reconciled: {} agents corrected, {} added", corrected, inserted);
+    }
+
+    @Override
+    public void registerAgent(Long agentId, Set<Long> problemTypeIds, int capacity) {
+        agentLoadRepository.save(new AgentLoad(agentId, 0, capacity));
+    }
+
+    @Override
+    public Optional<Long> claimLeastLoaded(Long problemTypeId) {
+        List<Long> agentIds = agentLoadRepository.findLeastLoaded(problemTypeId, CLAIM_CANDIDATES);
+        if (agentIds.isEmpty()) {
+            return Optional.empty();
+        }
+        // The first candidate not being claimed right now; if all of them are, waits for the least loaded
+        Long agentId = agentIds.stream()
+                .filter(id -> !agentLoadRepository.tryLock(id).isEmpty())
+                .findFirst()
+                .orElse(agentIds.get(0));
+        // Waits here in the last case only, holding no other agent's row: a single dispatch has locked
+        // none yet, and several dispatches in one transaction lock all specialists first
+        agentLoadRepository.adjust(agentId, 1);
+        return Optional.of(agentId);
+    }
+
+    @Override
+    public void lock(Collection<Long> agentIds) {
+        Set<Long> ids = agentIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(TreeSet::new));
+        if (!ids.isEmpty()) {
+            agentLoadRepository.lockAll(ids);
+        }
+    }
+
+    // Claims then wait for none of them, as they are locked by this transaction already
+    @Override
+    public void lockSpecialists(Collection<Long> problemTypeIds) {
+        if (!problemTypeIds.isEmpty()) {
+            lock(agentLoadRepository.findSpecialistIds(problemTypeIds));
+        }
+    }
+
+    @Override
+    public void increment(Long agentId) {
+        adjust(agentId, 1);
+    }
+
+    @Override
+    public void decrement(Long agentId) {
+        adjust(agentId, -1);
+    }
+
+    @Override
+    public int activeTickets(Long agentId) {
+        return agentLoadRepository.findActiveTicketsByAgentId(agentId).orElse(0);
+    }
+
+    private void adjust(Long agentId, int delta) {
+        if (agentId != null) {
+            agentLoadRepository.adjust(agentId, delta);
+        }
+    }
+}
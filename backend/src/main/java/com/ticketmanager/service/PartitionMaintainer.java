@@ -0,0 +1,159 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.util.NamedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the live tables (see V14) ahead of time: partitions for the next
+ * {@code partitions.months-ahead} months are split off the trailing {@code p_max} partition before
+ * any row can land in it. Partitions entirely older than {@code partitions.retention-months} are
+ * dropped once they are empty; archival drains them, and a partition still holding rows of a live
+ * ticket is left alone.
+ *
+ * Every instance schedules the maintenance, but it runs under a named lock: concurrent REORGANIZE
+ * statements on p_max would both try to split it, and the second one fails or waits on the table.
+ */
+@Slf4j
+@Component
+public class PartitionMaintainer {
+    private static final String LOCK = "partition-maintenance";
+    private static final List<String> TABLES = List.of("tickets", "replies");
+    private static final String MAX_PARTITION = "p_max";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedLock namedLock;
+    private final TicketCreationBounds creationBounds;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public PartitionMaintainer(JdbcTemplate jdbcTemplate,
+                               NamedLock namedLock,
+                               TicketCreationBounds creationBounds,
+                               @Value("${partitions.enabled:true}") boolean enabled,
+                               @Value("${partitions.months-ahead:3}") int monthsAhead,
+                               @Value("${partitions.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedLock = namedLock;
+        this.creationBounds = creationBounds;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        if (!namedLock.tryRun(LOCK, this::maintainTables)) {
+            log.info("Partition maintenance is running on another instance, skipped");
+            return;
+        }
+        creationBounds.refresh();
+    }
+
+    private void maintainTables() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (String table : TABLES) {
+            try {
+                createAhead(table, current.plusMonths(monthsAhead + 1L));
+                dropExpired(table, current.minusMonths(retentionMonths));
+            } catch (RuntimeException e) {
+                log.error("Partition maintenance of {} failed", table, e);
+            }
+        }
+    }
+
+    // Splits monthly partitions off p_max until they reach the start of month `until`
+    private void createAhead(String table, YearMonth until) {
+        List<Partition> partitions = partitions(table);
+        if (partitions.isEmpty()) {
+            log.warn("Table {} is not partitioned, skipping partition maintenance", table);
+            return;
+        }
+
+        long from = partitions.stream()
+                .filter(partition -> partition.upperBound() != null)
+                .mapToLong(Partition::upperBound)
+                .max()
+                .orElseThrow();
+        // Each new partition is named after the month it starts in and ends at the next month start,
+        // so a bound in the middle of a month is completed first
+        YearMonth next = month(from).plusMonths(1);
+        while (!next.isAfter(until)) {
+            long bound = epochSecond(next);
+            String name = month(from).format(NAME_FORMAT);
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + "PARTITION " + name + " VALUES LESS THAN (" + bound + "), "
+                    + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            log.info("Created partition {}.{}", table, name);
+            from = bound;
+            next = next.plusMonths(1);
+        }
+    }
+
+    // Drops the partitions whose rows were all created before month `before`, if they are empty
+    private void dropExpired(String table, YearMonth before) {
+        long cutoff = epochSecond(before);
+        List<Partition> partitions = partitions(table);
+        // The last bounded partition is kept so the table never consists of p_max alone
+        for (Partition partition : partitions.subList(0, Math.max(0, partitions.size() - 2))) {
+            if (partition.upperBound() == null || partition.upperBound() > cutoff) {
+                break;
+            }
+            Boolean hasRows = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + table + " PARTITION (" + partition.name() + "))", Boolean.class);
+            if (Boolean.TRUE.equals(hasRows)) {
+                log.info("Keeping expired partition {}.{}, it still holds live rows", table, partition.name());
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition.name());
+            log.info("Dropped expired partition {}.{}", table, partition.name());
+        }
+    }
+
+    private List<Partition> partitions(String table) {
+        return partitions(jdbcTemplate, table);
+    }
+
+    // In partition order; empty when the table is not partitioned
+    static List<Partition> partitions(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.query(
+                "SELECT partition_name, partition_description FROM information_schema.partitions " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+                "ORDER BY partition_ordinal_position",
+                (rs, rowNum) -> {
+                    String description = rs.getString(2);
+                    return new Partition(rs.getString(1),
+                            "MAXVALUE".equalsIgnoreCase(description) ? null : Long.valueOf(description));
+                },
+                table);
+    }
+
+    private static YearMonth month(long epochSecond) {
+        return YearMonth.from(Instant.ofEpochSecond(epochSecond).atZone(ZoneOffset.UTC));
+    }
+
+    private static long epochSecond(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    // upperBound is in epoch seconds, null for p_max
+    record Partition(String name, Long upperBound) {
+    }
+}
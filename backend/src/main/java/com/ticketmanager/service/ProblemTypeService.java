@@ -2,30 +2,41 @@ package com.ticketmanager.service;
 
 import com.ticketmanager.dto.ProblemTypeResponse;
 import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.exception.ResourceNotFoundException;
 import com.ticketmanager.repository.ProblemTypeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Problem types are reference data that only change through migrations, so lookups are served from
+ * cache. After the table has been changed out of band, {@code DELETE /actuator/caches} drops the
+ * stale entries.
+ */
 @Service
 @RequiredArgsConstructor
 public class ProblemTypeService {
+    public static final String ALL_CACHE = "problemTypeList";
+    public static final String BY_ID_CACHE = "problemTypes";
+
     private final ProblemTypeRepository problemTypeRepository;
 
+    @Cacheable(ALL_CACHE)
     @Transactional(readOnly = true)
     public List<ProblemTypeResponse> getAllProblemTypes() {
         return problemTypeRepository.findAll().stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .toList();
     }
 
+    @Cacheable(BY_ID_CACHE)
     @Transactional(readOnly = true)
     public ProblemTypeResponse getProblemTypeById(Long id) {
         ProblemType problemType = problemTypeRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Problem type not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Problem type not found with id: " + id));
         return mapToResponse(problemType);
     }
 
@@ -33,4 +44,3 @@ public class ProblemTypeService {
         return new ProblemTypeResponse(problemType.getId(), problemType.getName(), problemType.getDescription());
     }
 }
-
@@ -1,60 +1,146 @@
 package com.ticketmanager.service;
 
+import com.ticketmanager.dto.ReplyPageResponse;
 import com.ticketmanager.dto.ReplyRequest;
 import com.ticketmanager.dto.ReplyResponse;
+import com.ticketmanager.entity.ArchivedReply;
 import com.ticketmanager.entity.Reply;
 import com.ticketmanager.entity.Ticket;
 import com.ticketmanager.entity.User;
+import com.ticketmanager.event.TicketEvent;
+import com.ticketmanager.event.TicketSnapshot;
 import com.ticketmanager.exception.ResourceNotFoundException;
+import com.ticketmanager.repository.ArchivedReplyRepository;
+import com.ticketmanager.repository.ArchivedTicketRepository;
+import com.ticketmanager.repository.ReplyCursor;
 import com.ticketmanager.repository.ReplyRepository;
 import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.TicketVersion;
+import com.ticketmanager.search.TicketSearchIndex;
+import com.ticketmanager.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class ReplyService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final ReplyRepository replyRepository;
     private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final ArchivedReplyRepository archivedReplyRepository;
     private final UserService userService;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final TicketCreationBounds creationBounds;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public ReplyResponse createReply(Long ticketId, ReplyRequest request, String userEmail) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+    public ReplyResponse createReply(Long ticketId, ReplyRequest request, AuthenticatedUser currentUser) {
+        Ticket ticket = ticketRepository.findWithDetailsById(ticketId, creationBounds.since(ticketId))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
 
-        User user = userService.findByEmail(userEmail);
+        User user = userService.findById(currentUser.getId());
 
         Reply reply = new Reply();
         reply.setTicket(ticket);
         reply.setUser(user);
         reply.setContent(request.getContent());
 
+        // Locks the ticket row first: without foreign keys, this is what keeps a reply from being
+        // added to a ticket that is concurrently deleted or archived
+        if (ticketRepository.registerReply(ticketId, ticket.getCreatedAt()) == 0) {
+            throw new ResourceNotFoundException("Ticket not found with id: " + ticketId);
+        }
         Reply savedReply = replyRepository.save(reply);
+        ticketSearchIndex.index(savedReply);
+        eventPublisher.publishEvent(TicketEvent.replyAdded(TicketSnapshot.of(ticket), savedReply.getId(), user.getId()));
         return mapToResponse(savedReply);
     }
 
+    /**
+     * Version of the ticket the replies belong to; every new reply increments it, so it tags every
+     * page of the thread.
+     */
+    @Transactional(readOnly = true)
+    public Long getTicketVersion(Long ticketId) {
+        return ticketRepository.findVersionById(ticketId, creationBounds.since(ticketId))
+                .or(() -> archivedTicketRepository.findVersionById(ticketId))
+                .map(TicketVersion::getVersion)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
+    }
+
+    /**
+     * One page of a ticket's replies, oldest first, continuing after {@code cursor} when given.
+     * Archived tickets are served from the archive.
+     */
     @Transactional(readOnly = true)
-    public List<ReplyResponse> getRepliesByTicketId(Long ticketId) {
-        return replyRepository.findByTicketIdOrderByCreatedAtAsc(ticketId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public ReplyPageResponse getReplies(Long ticketId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ReplyCursor after = cursor != null && !cursor.isBlank() ? ReplyCursor.decode(cursor) : null;
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Reply> replies;
+        if (after != null) {
+            replies = replyRepository.findPageAfter(ticketId, after.getCreatedAt(), after.getId(), window);
+            if (replies.isEmpty() && ticketRepository.findCreatedAtById(ticketId, creationBounds.since(ticketId)).isEmpty()) {
+                return getArchivedReplies(ticketId, after, pageSize);
+            }
+        } else {
+            Optional<LocalDateTime> ticketCreatedAt = ticketRepository.findCreatedAtById(ticketId, creationBounds.since(ticketId));
+            if (ticketCreatedAt.isEmpty()) {
+                return getArchivedReplies(ticketId, null, pageSize);
+            }
+            replies = replyRepository.findFirstPage(ticketId, ticketCreatedAt.get(), window);
+        }
+
+        String nextCursor = null;
+        if (replies.size() > pageSize) {
+            replies = replies.subList(0, pageSize);
+            nextCursor = ReplyCursor.after(replies.get(pageSize - 1)).encode();
+        }
+        return new ReplyPageResponse(replies.stream().map(this::mapToResponse).toList(), nextCursor);
+    }
+
+    private ReplyPageResponse getArchivedReplies(Long ticketId, ReplyCursor after, int pageSize) {
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<ArchivedReply> replies = after != null
+                ? archivedReplyRepository.findPageAfter(ticketId, after.getCreatedAt(), after.getId(), window)
+                : archivedReplyRepository.findFirstPage(ticketId, window);
+
+        String nextCursor = null;
+        if (replies.size() > pageSize) {
+            replies = replies.subList(0, pageSize);
+            nextCursor = ReplyCursor.after(replies.get(pageSize - 1)).encode();
+        }
+        return new ReplyPageResponse(replies.stream()
+                .map(reply -> mapToResponse(reply.getId(), reply.getContent(), reply.getCreatedAt(), reply.getUser()))
+                .toList(), nextCursor);
     }
 
     private ReplyResponse mapToResponse(Reply reply) {
+        return mapToResponse(reply.getId(), reply.getContent(), reply.getCreatedAt(), reply.getUser());
+    }
+
+    private ReplyResponse mapToResponse(Long id, String content, LocalDateTime createdAt, User user) {
         return new ReplyResponse(
-                reply.getId(),
-                reply.getContent(),
-                reply.getCreatedAt(),
+                id,
+                content,
+                createdAt,
                 new com.ticketmanager.dto.UserResponse(
-                        reply.getUser().getId(),
-                        reply.getUser().getName(),
-                        reply.getUser().getEmail(),
-                        reply.getUser().getRole()
+                        user.getId(),
+                        user.getName(),
+                        user.getEmail(),
+                        user.getRole()
                 )
         );
     }
@@ -0,0 +1,114 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.event.TicketEvent;
+import com.ticketmanager.event.TicketSnapshot;
+import com.ticketmanager.repository.ArchivedReplyRepository;
+import com.ticketmanager.repository.ArchivedTicketRepository;
+import com.ticketmanager.repository.ReplyRepository;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.search.TicketSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves tickets closed for longer than {@code archive.closed-for}, with their replies, into the
+ * archive tables. Each batch is its own transaction, so a run that is interrupted or cut off by
+ * {@code archive.max-batches} simply continues with the oldest remaining tickets next time.
+ */
+@Slf4j
+@Component
+public class TicketArchiver {
+    private final TicketRepository ticketRepository;
+    private final ReplyRepository replyRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final ArchivedReplyRepository archivedReplyRepository;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TicketCreationBounds creationBounds;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final boolean enabled;
+    private final Duration closedFor;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public TicketArchiver(TicketRepository ticketRepository,
+                          ReplyRepository replyRepository,
+                          ArchivedTicketRepository archivedTicketRepository,
+                          ArchivedReplyRepository archivedReplyRepository,
+                          TicketSearchIndex ticketSearchIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          TicketCreationBounds creationBounds,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${archive.enabled:true}") boolean enabled,
+                          @Value("${archive.closed-for:90d}") Duration closedFor,
+                          @Value("${archive.batch-size:500}") int batchSize,
+                          @Value("${archive.max-batches:200}") int maxBatches) {
+        this.ticketRepository = ticketRepository;
+        this.replyRepository = replyRepository;
+        this.archivedTicketRepository = archivedTicketRepository;
+        this.archivedReplyRepository = archivedReplyRepository;
+        this.ticketSearchIndex = ticketSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.creationBounds = creationBounds;
+        this.transactionTemplate = transactionTemplate;
+        this.archivedCounter = meterRegistry.counter("tickets.archived");
+        this.enabled = enabled;
+        this.closedFor = closedFor;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}")
+    public void archiveClosedTickets() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(closedFor);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} tickets closed before {}", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        // Locked until commit, so a ticket cannot be reopened or replied to while it is moved
+        List<Long> ids = ticketRepository.lockArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<TicketSnapshot> snapshots = ticketRepository.findSnapshotsForUpdateByIdIn(ids);
+        // The lock query runs on the closed_at index and reads every partition; what follows only
+        // reads those the batch can lie in
+        LocalDateTime since = creationBounds.since(ids);
+        archivedTicketRepository.copyFromLive(ids, since);
+        archivedReplyRepository.copyFromLive(ids, since);
+        replyRepository.deleteByTicketIdIn(ids, since);
+        ticketRepository.deleteByIdIn(ids, since);
+
+        ids.forEach(ticketSearchIndex::remove);
+        snapshots.forEach(snapshot -> eventPublisher.publishEvent(TicketEvent.archived(snapshot)));
+        archivedCounter.increment(ids.size());
+        return ids.size();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ticketmanager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The earliest creation time a ticket can have, given only its id. Lookups by id pass it as a
+ * created_at bound, so they read the partitions from the ticket's month on instead of probing
+ * every partition of the table (see V14). Replies are never older than their ticket, so the bound
+ * holds for them too.
+ *
+ * Ids come from a sequence but are handed out in blocks per instance, so they only roughly follow
+ * creation time. The bound is derived from the highest id of each closed partition, one whose month
+ * has ended: a ticket cannot lie in a partition before the first one holding a higher id. Closed
+ * partitions receive no new rows, and archival or a dropped partition only loosens the bound.
+ * Until the marks are read, or without partitioning, the bound covers the whole table.
+ */
+@Slf4j
+@Component
+public class TicketCreationBounds {
+    // TIMESTAMP values start in 1970
+    static final LocalDateTime UNBOUNDED = LocalDateTime.of(1970, 1, 2, 0, 0);
+    // Rows can still commit into a month's partition shortly after it ended
+    private static final Duration SETTLE = Duration.ofHours(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    private volatile Marks marks = new Marks(new TreeMap<>(), UNBOUNDED);
+
+    public TicketCreationBounds(JdbcTemplate jdbcTemplate, @Value("${partitions.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public LocalDateTime since(Long ticketId) {
+        return marks.since(ticketId);
+    }
+
+    public LocalDateTime since(Collection<Long> ticketIds) {
+        Marks current = marks;
+        LocalDateTime since = current.openSince();
+        for (Long id : ticketIds) {
+            LocalDateTime bound = current.since(id);
+            if (bound.isBefore(since)) {
+                since = bound;
+            }
+        }
+        return since;
+    }
+
+    // Also at startup; PartitionMaintainer refreshes after changing the partitions
+    @Scheduled(fixedDelayString = "${partitions.bounds-refresh:3600000}")
+    public void refresh() {
+        if (enabled) {
+            refresh(Instant.now());
+        }
+    }
+
+    synchronized void refresh(Instant now) {
+        List<PartitionMaintainer.Partition> partitions;
+        try {
+            partitions = PartitionMaintainer.partitions(jdbcTemplate, "tickets");
+        } catch (RuntimeException e) {
+            log.warn("Could not read the partitions of tickets, lookups by id keep their previous bounds", e);
+            return;
+        }
+
+        long closedBefore = now.minus(SETTLE).getEpochSecond();
+        NavigableMap<Long, LocalDateTime> next = new TreeMap<>();
+        long highest = Long.MIN_VALUE;
+        LocalDateTime start = UNBOUNDED;
+        for (PartitionMaintainer.Partition partition : partitions) {
+            if (partition.upperBound() == null || partition.upperBound() > closedBefore) {
+                break;
+            }
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM tickets PARTITION (" + partition.name() + ")", Long.class);
+            if (maxId != null && maxId > highest) {
+                highest = maxId;
+                next.put(maxId, start);
+            }
+            start = toLocal(partition.upperBound());
+        }
+        marks = new Marks(next, start);
+    }
+
+    // created_at is bound as a LocalDateTime in the JVM's zone, so the partition bound is converted the same way
+    private static LocalDateTime toLocal(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    // closed maps the running maximum of the closed partitions' highest ids to the start of the
+    // partition that raised it; openSince is the start of the first partition still receiving rows
+    private record Marks(NavigableMap<Long, LocalDateTime> closed, LocalDateTime openSince) {
+
+        LocalDateTime since(Long ticketId) {
+            Map.Entry<Long, LocalDateTime> mark = closed.ceilingEntry(ticketId);
+            return mark != null ? mark.getValue() : openSince;
+        }
+    }
+}
@@ -1,41 +1,143 @@
 package com.ticketmanager.service;
 
 import com.ticketmanager.dto.*;
+import com.ticketmanager.entity.ArchivedReply;
+import com.ticketmanager.entity.ArchivedTicket;
 import com.ticketmanager.entity.ProblemType;
 import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.Reply;
 import com.ticketmanager.entity.Role;
 import com.ticketmanager.entity.Ticket;
 import com.ticketmanager.entity.TicketStatus;
 import com.ticketmanager.entity.User;
+import com.ticketmanager.event.TicketEvent;
+import com.ticketmanager.event.TicketSnapshot;
+import com.ticketmanager.exception.PreconditionFailedException;
 import com.ticketmanager.exception.ResourceNotFoundException;
+import com.ticketmanager.repository.ArchivedReplyRepository;
+import com.ticketmanager.repository.ArchivedTicketRepository;
 import com.ticketmanager.repository.ProblemTypeRepository;
 import com.ticketmanager.repository.ReplyRepository;
+import com.ticketmanager.repository.TicketCursor;
+import com.ticketmanager.repository.TicketFilter;
 import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.repository.TicketVersion;
 import com.ticketmanager.repository.UserRepository;
+import com.ticketmanager.search.TicketSearchIndex;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.util.ETagUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TicketService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    public static final int DEFAULT_EMBEDDED_REPLIES = 3;
+    public static final int MAX_EMBEDDED_REPLIES = 50;
+    // Ranked tickets a claim tries to lock before ranking the queue again
+    private static final int CLAIM_CANDIDATES = 5;
+
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final ProblemTypeRepository problemTypeRepository;
+    private final ProblemTypeService problemTypeService;
     private final ReplyRepository replyRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final ArchivedReplyRepository archivedReplyRepository;
+    private final AgentLoadTracker agentLoadTracker;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final TicketCreationBounds creationBounds;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Off leaves new tickets waiting for agents to pull them with claimNextTicket
+    @Value("${dispatch.auto-assign:true}")
+    private boolean autoAssign;
+
+    // A waiting ticket gains one priority level per interval, so LOW tickets are not starved
+    @Value("${dispatch.aging-interval:4h}")
+    private Duration agingInterval;
+
+    @Transactional
+    public TicketResponse createTicket(CreateTicketRequest request, AuthenticatedUser currentUser) {
+        User creator = userService.findById(currentUser.getId());
+
+        Ticket ticket = buildTicket(request, creator, problemTypeReference(request.getProblemTypeId()));
+
+        // Auto-dispatch to agent with matching specialization and least tickets
+        dispatchTicketToAgent(ticket);
+
+        Ticket savedTicket = ticketRepository.save(ticket);
+        ticketSearchIndex.index(savedTicket);
+        eventPublisher.publishEvent(TicketEvent.created(TicketSnapshot.of(savedTicket)));
+        return mapToTicketResponse(savedTicket, List.of());
+    }
 
     @Transactional
-    public TicketResponse createTicket(CreateTicketRequest request, String creatorEmail) {
-        User creator = userService.findByEmail(creatorEmail);
+    public BulkCreateTicketResponse createTickets(BulkCreateTicketRequest request, AuthenticatedUser currentUser) {
+        User creator = userRepository.getReferenceById(currentUser.getId());
+
+        Map<Long, ProblemType> problemTypes = request.getTickets().stream()
+                .map(CreateTicketRequest::getProblemTypeId)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), this::problemTypeReference));
+
+        // Claiming the least loaded specialist for one ticket after another would lock them in load
+        // order, and wait for one while holding others: all of them are locked at once instead
+        if (autoAssign) {
+            agentLoadTracker.lockSpecialists(problemTypes.keySet());
+        }
+        List<Ticket> tickets = new ArrayList<>(request.getTickets().size());
+        for (CreateTicketRequest ticketRequest : request.getTickets()) {
+            Ticket ticket = buildTicket(ticketRequest, creator, problemTypes.get(ticketRequest.getProblemTypeId()));
+            dispatchTicketToAgent(ticket);
+            tickets.add(ticket);
+        }
+
+        // Ids come from the pooled generator, so the inserts are flushed as JDBC batches
+        List<Ticket> savedTickets = ticketRepository.saveAll(tickets);
+        savedTickets.forEach(ticket -> {
+            ticketSearchIndex.index(ticket);
+            eventPublisher.publishEvent(TicketEvent.created(TicketSnapshot.of(ticket)));
+        });
+        List<Long> ids = savedTickets.stream()
+                .map(Ticket::getId)
+                .collect(Collectors.toList());
+        return new BulkCreateTicketResponse(ids.size(), ids);
+    }
 
-        ProblemType problemType = problemTypeRepository.findById(request.getProblemTypeId())
-                .orElseThrow(() -> new ResourceNotFoundException("Problem type not found with id: " + request.getProblemTypeId()));
+    // Existence is checked against the problem type cache, so a known id costs no query
+    private ProblemType problemTypeReference(Long problemTypeId) {
+        problemTypeService.getProblemTypeById(problemTypeId);
+        return problemTypeRepository.getReferenceById(problemTypeId);
+    }
 
+    private Ticket buildTicket(CreateTicketRequest request, User creator, ProblemType problemType) {
         Ticket ticket = new Ticket();
         ticket.setTitle(request.getTitle());
         ticket.setDescription(request.getDescription());
@@ -44,128 +146,349 @@ public class TicketService {
         ticket.setCreatedBy(creator);
         ticket.setProblemType(problemType);
         ticket.setIsPublic(request.getIsPublic() != null ? request.getIsPublic() : true);
+        return ticket;
+    }
 
-        Ticket savedTicket = ticketRepository.save(ticket);
+    private void dispatchTicketToAgent(Ticket ticket) {
+        if (!autoAssign || ticket.getProblemType() == null) {
+            return;
+        }
 
-        // Auto-dispatch to agent with matching specialization and least tickets
-        dispatchTicketToAgent(savedTicket);
+        // No agents available for this problem type leaves the ticket unassigned
+        agentLoadTracker.claimLeastLoaded(ticket.getProblemType().getId())
+                .ifPresent(agentId -> ticket.setAssignedTo(userRepository.getReferenceById(agentId)));
+    }
+
+    @Transactional(readOnly = true)
+    public TicketPageResponse getAllTickets(AuthenticatedUser currentUser, TicketFilter filter, TicketSort sort,
+                                            Sort.Direction direction, String cursor, int limit, int replies) {
+        restrictToReadable(filter, currentUser);
+        int pageSize = pageSize(limit);
+        TicketCursor after = decodeCursor(cursor, sort, direction);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Ticket> tickets = ticketRepository.findPage(filter, sort, direction, after, pageSize + 1);
+        String nextCursor = null;
+        if (tickets.size() > pageSize) {
+            tickets = tickets.subList(0, pageSize);
+            nextCursor = TicketCursor.after(tickets.get(pageSize - 1), sort, direction).encode();
+        }
 
-        return mapToTicketResponse(savedTicket);
+        return new TicketPageResponse(mapToTicketResponses(tickets, replies), nextCursor);
     }
 
-    private void dispatchTicketToAgent(Ticket ticket) {
-        if (ticket.getProblemType() == null) {
-            return;
+    /**
+     * Admin listing over the live and the archived tickets. Both are read with the same keyset and
+     * merged, so the cursor works across the two tables.
+     */
+    @Transactional(readOnly = true)
+    public TicketPageResponse getAllTicketsWithArchive(AuthenticatedUser currentUser, TicketFilter filter, TicketSort sort,
+                                                       Sort.Direction direction, String cursor, int limit, int replies) {
+        if (currentUser.getRole() != Role.ADMIN) {
+            throw new AccessDeniedException("Only admins can list archived tickets");
         }
+        int pageSize = pageSize(limit);
+        TicketCursor after = decodeCursor(cursor, sort, direction);
+
+        List<Ticket> live = ticketRepository.findPage(filter, sort, direction, after, pageSize + 1);
+        List<ArchivedTicket> archived = ticketRepository.findArchivedPage(filter, sort, direction, after, pageSize + 1);
+
+        // Merge the two ordered lists up to one row past the page; archived ids never reappear live
+        List<Ticket> pageLive = new ArrayList<>();
+        List<ArchivedTicket> pageArchived = new ArrayList<>();
+        List<Long> order = new ArrayList<>(pageSize);
+        TicketCursor last = null;
+        int l = 0;
+        int a = 0;
+        while (order.size() < pageSize && (l < live.size() || a < archived.size())) {
+            TicketCursor nextLive = l < live.size() ? TicketCursor.after(live.get(l), sort, direction) : null;
+            TicketCursor nextArchived = a < archived.size() ? TicketCursor.after(archived.get(a), sort, direction) : null;
+            if (nextArchived == null || (nextLive != null && nextLive.compareTo(nextArchived) < 0)) {
+                pageLive.add(live.get(l++));
+                last = nextLive;
+            } else {
+                pageArchived.add(archived.get(a++));
+                last = nextArchived;
+            }
+            order.add(last.getId());
+        }
+        String nextCursor = l < live.size() || a < archived.size() ? last.encode() : null;
 
-        List<User> agents = userRepository.findAgentsByProblemType(ticket.getProblemType().getId());
+        Map<Long, TicketResponse> responses = new HashMap<>();
+        mapToTicketResponses(pageLive, replies).forEach(response -> responses.put(response.getId(), response));
+        mapArchivedResponses(pageArchived, replies).forEach(response -> responses.put(response.getId(), response));
+        return new TicketPageResponse(order.stream().map(responses::get).toList(), nextCursor);
+    }
 
-        if (agents.isEmpty()) {
-            return; // No agents available for this problem type
+    /**
+     * ETag of the page {@link #getAllTickets} would return, from the ids and versions alone.
+     */
+    @Transactional(readOnly = true)
+    public String getTicketPageETag(AuthenticatedUser currentUser, TicketFilter filter, TicketSort sort,
+                                    Sort.Direction direction, String cursor, int limit) {
+        restrictToReadable(filter, currentUser);
+        int pageSize = pageSize(limit);
+        List<Object[]> rows = ticketRepository.findPageVersions(filter, sort, direction, decodeCursor(cursor, sort, direction), pageSize + 1);
+
+        List<Object[]> page = rows.subList(0, Math.min(rows.size(), pageSize));
+        return ETagUtil.page(
+                page.stream().map(row -> (Long) row[0]).toList(),
+                page.stream().map(row -> (Long) row[1]).toList(),
+                rows.size() > pageSize);
+    }
+
+    private void restrictToReadable(TicketFilter filter, AuthenticatedUser currentUser) {
+        if (currentUser.getRole() == Role.AGENT) {
+            filter.setAssignedToId(currentUser.getId());
+        } else if (currentUser.getRole() == Role.USER) {
+            filter.setCreatedById(currentUser.getId());
         }
+    }
 
-        // Find agent with least active tickets
-        User selectedAgent = agents.stream()
-                .min(Comparator.comparing(agent -> 
-                    ticketRepository.countActiveTicketsByAgent(agent.getId())))
-                .orElse(agents.get(0));
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
 
-        ticket.setAssignedTo(selectedAgent);
-        ticketRepository.save(ticket);
+    private static TicketCursor decodeCursor(String cursor, TicketSort sort, Sort.Direction direction) {
+        return cursor != null && !cursor.isBlank() ? TicketCursor.decode(cursor, sort, direction) : null;
     }
 
     @Transactional(readOnly = true)
-    public List<TicketResponse> getAllTickets(String userEmail, TicketStatus status, Priority priority, Long problemTypeId, Boolean isPublic) {
-        User user = userService.findByEmail(userEmail);
-        List<Ticket> tickets;
+    public TicketResponse getTicketById(Long id, AuthenticatedUser user, int replies) {
+        Optional<Ticket> live = ticketRepository.findWithDetailsById(id, creationBounds.since(id));
+        if (live.isEmpty()) {
+            return getArchivedTicketById(id, user, replies);
+        }
 
-        if (user.getRole() == Role.ADMIN) {
-            if (status != null || priority != null || problemTypeId != null || isPublic != null) {
-                tickets = ticketRepository.findTicketsWithFilters(status, priority, problemTypeId, isPublic);
-            } else {
-                tickets = ticketRepository.findAll();
-            }
-        } else if (user.getRole() == Role.AGENT) {
-            tickets = ticketRepository.findByAssignedToId(user.getId());
-            // Apply filters if provided
-            if (status != null) {
-                tickets = tickets.stream().filter(t -> t.getStatus() == status).collect(Collectors.toList());
-            }
-            if (priority != null) {
-                tickets = tickets.stream().filter(t -> t.getPriority() == priority).collect(Collectors.toList());
-            }
-        } else { // USER role
-            tickets = ticketRepository.findByCreatedById(user.getId());
-            // Apply filters if provided
-            if (status != null) {
-                tickets = tickets.stream().filter(t -> t.getStatus() == status).collect(Collectors.toList());
-            }
-            if (priority != null) {
-                tickets = tickets.stream().filter(t -> t.getPriority() == priority).collect(Collectors.toList());
-            }
-            if (problemTypeId != null) {
-                tickets = tickets.stream().filter(t -> t.getProblemType() != null && t.getProblemType().getId().equals(problemTypeId)).collect(Collectors.toList());
-            }
+        Ticket ticket = live.get();
+        if (!canRead(ticket, user)) {
+            throw new RuntimeException("Access denied");
         }
 
-        return tickets.stream()
-                .map(this::mapToTicketResponse)
-                .collect(Collectors.toList());
+        return mapToTicketResponses(List.of(ticket), replies).get(0);
+    }
+
+    private TicketResponse getArchivedTicketById(Long id, AuthenticatedUser user, int replies) {
+        ArchivedTicket ticket = archivedTicketRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+
+        if (!canRead(ticket.getIsPublic(), ticket.getCreatedBy().getId(),
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null, user)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        return mapArchivedResponses(List.of(ticket), replies).get(0);
     }
 
+    /**
+     * The ticket's version after the same existence and read checks as {@link #getTicketById}, with
+     * a single query that loads neither the ticket nor its replies.
+     */
     @Transactional(readOnly = true)
-    public TicketResponse getTicketById(Long id, String userEmail) {
-        Ticket ticket = ticketRepository.findById(id)
+    public Long getTicketVersion(Long id, AuthenticatedUser user) {
+        TicketVersion version = ticketRepository.findVersionById(id, creationBounds.since(id))
+                .or(() -> archivedTicketRepository.findVersionById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
 
-        User user = userService.findByEmail(userEmail);
+        if (!canRead(version.getIsPublic(), version.getCreatedById(), version.getAssignedToId(), user)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        return version.getVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TicketResponse> searchTickets(String query, AuthenticatedUser user, int limit, int replies) {
+        List<Long> ids = ticketSearchIndex.search(query, user, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Keep the index ranking; re-check access in case the index lags behind a reassignment
+        Map<Long, Ticket> ticketsById = ticketRepository.findWithDetailsByIdIn(ids, creationBounds.since(ids)).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        // Deleted or archived, possibly through another instance, whose index still had them. A ticket
+        // missing only from a lagging replica is indexed again by the next sync
+        ids.stream()
+                .filter(id -> !ticketsById.containsKey(id))
+                .forEach(ticketSearchIndex::remove);
+        List<Ticket> tickets = ids.stream()
+                .map(ticketsById::get)
+                .filter(ticket -> ticket != null && canRead(ticket, user))
+                .collect(Collectors.toList());
+        return mapToTicketResponses(tickets, replies);
+    }
 
-        // Access control
+    private boolean canRead(Ticket ticket, AuthenticatedUser user) {
+        return canRead(ticket.getIsPublic(), ticket.getCreatedBy().getId(),
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null, user);
+    }
+
+    private boolean canRead(boolean isPublic, Long createdById, Long assignedToId, AuthenticatedUser user) {
         if (user.getRole() == Role.ADMIN) {
             // Admin can see all tickets
+            return true;
         } else if (user.getRole() == Role.AGENT) {
             // Agent can see assigned tickets or public tickets
-            if (ticket.getAssignedTo() == null || !ticket.getAssignedTo().getId().equals(user.getId())) {
-                if (!ticket.getIsPublic()) {
-                    throw new RuntimeException("Access denied");
-                }
-            }
-        } else { // USER role
-            // User can see their own tickets or public tickets
-            if (!ticket.getCreatedBy().getId().equals(user.getId()) && !ticket.getIsPublic()) {
-                throw new RuntimeException("Access denied");
-            }
+            return isPublic || user.getId().equals(assignedToId);
         }
-
-        return mapToTicketResponse(ticket);
+        // User can see their own tickets or public tickets
+        return isPublic || user.getId().equals(createdById);
     }
 
     @Transactional
-    public TicketResponse updateTicket(Long id, UpdateTicketRequest request, String userEmail) {
-        Ticket ticket = ticketRepository.findById(id)
+    public TicketResponse updateTicket(Long id, UpdateTicketRequest request, AuthenticatedUser user, String ifMatch) {
+        Ticket ticket = ticketRepository.findWithDetailsById(id, creationBounds.since(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        checkPrecondition(ticket, ifMatch);
 
-        User user = userService.findByEmail(userEmail);
         if (!user.getRole().name().equals("ADMIN") && 
             (ticket.getAssignedTo() == null || !ticket.getAssignedTo().getId().equals(user.getId()))) {
             throw new RuntimeException("Access denied");
         }
 
+        TicketSnapshot before = TicketSnapshot.of(ticket);
         if (request.getStatus() != null) {
+            if (ticket.getAssignedTo() != null && isActive(ticket.getStatus()) != isActive(request.getStatus())) {
+                if (isActive(request.getStatus())) {
+                    agentLoadTracker.increment(ticket.getAssignedTo().getId());
+                } else {
+                    agentLoadTracker.decrement(ticket.getAssignedTo().getId());
+                }
+            }
+            if (request.getStatus() != TicketStatus.CLOSED) {
+                ticket.setClosedAt(null);
+            } else if (ticket.getStatus() != TicketStatus.CLOSED) {
+                ticket.setClosedAt(LocalDateTime.now());
+            }
             ticket.setStatus(request.getStatus());
         }
         if (request.getPriority() != null) {
             ticket.setPriority(request.getPriority());
         }
 
-        Ticket updatedTicket = ticketRepository.save(ticket);
+        // Flushed so the response carries the incremented version
+        Ticket updatedTicket = ticketRepository.saveAndFlush(ticket);
+        eventPublisher.publishEvent(TicketEvent.updated(before, TicketSnapshot.of(updatedTicket)));
         return mapToTicketResponse(updatedTicket);
     }
 
+    /**
+     * Applies one status, priority and/or assignee change to many tickets with a single UPDATE.
+     * Tickets the user may not update are reported per id instead of failing the whole request.
+     */
     @Transactional
-    public TicketResponse assignTicket(Long id, AssignTicketRequest request) {
-        Ticket ticket = ticketRepository.findById(id)
+    public BulkUpdateTicketResponse updateTickets(BulkUpdateTicketRequest request, AuthenticatedUser user) {
+        if (request.getStatus() == null && request.getPriority() == null && request.getAssignedToId() == null) {
+            throw new RuntimeException("Nothing to update");
+        }
+
+        boolean admin = user.getRole() == Role.ADMIN;
+        User agent = null;
+        if (request.getAssignedToId() != null) {
+            if (!admin) {
+                throw new AccessDeniedException("Only admins can assign tickets");
+            }
+            agent = userRepository.findById(request.getAssignedToId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Agent not found with id: " + request.getAssignedToId()));
+            if (agent.getRole() != Role.AGENT) {
+                throw new RuntimeException("User is not an agent");
+            }
+        }
+
+        // Read without locking: the tickets are locked below, after the counts of the agents they move between
+        Map<Long, TicketSnapshot> current = ticketRepository.findSnapshotsByIdIn(request.getIds()).stream()
+                .collect(Collectors.toMap(TicketSnapshot::getId, Function.identity()));
+
+        List<BulkTicketResult> results = new ArrayList<>(request.getIds().size());
+        List<Long> allowed = new ArrayList<>();
+        for (Long id : request.getIds()) {
+            TicketSnapshot before = current.get(id);
+            if (before == null) {
+                results.add(new BulkTicketResult(id, BulkTicketResult.Outcome.NOT_FOUND));
+            } else if (!admin && !user.getId().equals(before.getAssignedToId())) {
+                results.add(new BulkTicketResult(id, BulkTicketResult.Outcome.FORBIDDEN));
+            } else {
+                results.add(new BulkTicketResult(id, BulkTicketResult.Outcome.UPDATED));
+                allowed.add(id);
+            }
+        }
+        if (allowed.isEmpty()) {
+            return new BulkUpdateTicketResponse(0, results);
+        }
+
+        Long agentId = agent != null ? agent.getId() : null;
+        Set<Long> movedBetween = new HashSet<>();
+        for (Long id : allowed) {
+            TicketSnapshot before = current.get(id);
+            movedBetween.add(countedAgent(before));
+            movedBetween.add(countedAgent(changed(before, request, agentId)));
+        }
+        agentLoadTracker.lock(movedBetween);
+
+        // Locked until commit. A ticket deleted, or whose status or assignee changed, since it was read would
+        // move the count of an agent not locked above: the request fails as it would on a stale version
+        Map<Long, TicketSnapshot> locked = ticketRepository.findSnapshotsForUpdateByIdIn(allowed).stream()
+                .collect(Collectors.toMap(TicketSnapshot::getId, Function.identity()));
+        for (Long id : allowed) {
+            TicketSnapshot read = current.get(id);
+            TicketSnapshot now = locked.get(id);
+            if (now == null || now.getStatus() != read.getStatus() || !Objects.equals(now.getAssignedToId(), read.getAssignedToId())) {
+                throw new ObjectOptimisticLockingFailureException(Ticket.class, id);
+            }
+            current.put(id, now);
+        }
+
+        ticketRepository.bulkUpdate(allowed, request.getStatus(), request.getPriority(), agent);
+
+        for (Long id : allowed) {
+            TicketSnapshot before = current.get(id);
+            TicketSnapshot after = changed(before, request, agentId);
+            adjustAgentLoad(before, after);
+            eventPublisher.publishEvent(Objects.equals(before.getAssignedToId(), after.getAssignedToId())
+                    ? TicketEvent.updated(before, after)
+                    : TicketEvent.assigned(before, after));
+        }
+
+        // The assignee is part of the search document's access fields
+        if (agent != null) {
+            ticketRepository.findWithDetailsByIdIn(allowed, creationBounds.since(allowed)).forEach(ticketSearchIndex::index);
+        }
+
+        return new BulkUpdateTicketResponse(allowed.size(), results);
+    }
+
+    private static TicketSnapshot changed(TicketSnapshot before, BulkUpdateTicketRequest request, Long agentId) {
+        return new TicketSnapshot(
+                before.getId(),
+                request.getStatus() != null ? request.getStatus() : before.getStatus(),
+                request.getPriority() != null ? request.getPriority() : before.getPriority(),
+                before.getProblemTypeId(),
+                before.getCreatedById(),
+                agentId != null ? agentId : before.getAssignedToId(),
+                before.isPublic());
+    }
+
+    // Moves the ticket's active count from its previous agent to its current one, if either changed
+    private void adjustAgentLoad(TicketSnapshot before, TicketSnapshot after) {
+        Long previous = countedAgent(before);
+        Long next = countedAgent(after);
+        if (!Objects.equals(previous, next)) {
+            agentLoadTracker.decrement(previous);
+            agentLoadTracker.increment(next);
+        }
+    }
+
+    // The agent the ticket counts against, if it is active
+    private static Long countedAgent(TicketSnapshot ticket) {
+        return isActive(ticket.getStatus()) ? ticket.getAssignedToId() : null;
+    }
+
+    @Transactional
+    public TicketResponse assignTicket(Long id, AssignTicketRequest request, String ifMatch) {
+        Ticket ticket = ticketRepository.findWithDetailsById(id, creationBounds.since(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        checkPrecondition(ticket, ifMatch);
 
         User agent = userRepository.findById(request.getAgentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Agent not found with id: " + request.getAgentId()));
@@ -174,60 +497,185 @@ public class TicketService {
             throw new RuntimeException("User is not an agent");
         }
 
+        TicketSnapshot before = TicketSnapshot.of(ticket);
+        if (isActive(ticket.getStatus())) {
+            agentLoadTracker.lock(Arrays.asList(before.getAssignedToId(), agent.getId()));
+            agentLoadTracker.decrement(before.getAssignedToId());
+            agentLoadTracker.increment(agent.getId());
+        }
+
         ticket.setAssignedTo(agent);
-        Ticket updatedTicket = ticketRepository.save(ticket);
+        Ticket updatedTicket = ticketRepository.saveAndFlush(ticket);
+        ticketSearchIndex.index(updatedTicket);
+        eventPublisher.publishEvent(TicketEvent.assigned(before, TicketSnapshot.of(updatedTicket)));
         return mapToTicketResponse(updatedTicket);
     }
 
+    /**
+     * Assigns the agent the waiting (open, unassigned) ticket with the highest aged priority among
+     * their specializations. The queue is ranked without locks and only the ticket taken is locked,
+     * with SKIP LOCKED: one that another agent is claiming, or has claimed since the ranking, is
+     * passed over for the next. Read committed, so a new ranking leaves out the claims committed
+     * meanwhile and the ticket is loaded as it was locked.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Optional<TicketResponse> claimNextTicket(AuthenticatedUser agent) {
+        // The agent's count is locked before any ticket, like in every other change
+        agentLoadTracker.lock(List.of(agent.getId()));
+        Optional<Long> next = lockNextWaiting(userRepository.findSpecializationIdsById(agent.getId()));
+        if (next.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long id = next.get();
+        Ticket ticket = ticketRepository.findWithDetailsById(id, creationBounds.since(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+        TicketSnapshot before = TicketSnapshot.of(ticket);
+        ticket.setAssignedTo(userRepository.getReferenceById(agent.getId()));
+        agentLoadTracker.increment(agent.getId());
+
+        Ticket claimedTicket = ticketRepository.saveAndFlush(ticket);
+        ticketSearchIndex.index(claimedTicket);
+        eventPublisher.publishEvent(TicketEvent.claimed(before, TicketSnapshot.of(claimedTicket)));
+        return Optional.of(mapToTicketResponse(claimedTicket));
+    }
+
+    // Each round ranks past the tickets already tried; it ends once the ranking runs out of tickets
+    private Optional<Long> lockNextWaiting(List<Long> problemTypeIds) {
+        if (problemTypeIds.isEmpty()) {
+            return Optional.empty();
+        }
+        String priorities = Arrays.stream(Priority.values()).map(Priority::name).collect(Collectors.joining(","));
+        long agingSeconds = Math.max(1, agingInterval.toSeconds());
+        Set<Long> tried = new HashSet<>();
+        while (true) {
+            int limit = tried.size() + CLAIM_CANDIDATES;
+            List<Long> ranked = ticketRepository.findRankedWaitingIds(problemTypeIds, priorities, agingSeconds, limit);
+            for (Long id : ranked) {
+                if (tried.add(id) && !ticketRepository.lockIfWaiting(id, creationBounds.since(id)).isEmpty()) {
+                    return Optional.of(id);
+                }
+            }
+            if (ranked.size() < limit) {
+                return Optional.empty();
+            }
+        }
+    }
+
     @Transactional
     public void deleteTicket(Long id) {
-        if (!ticketRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Ticket not found with id: " + id);
+        Ticket ticket = ticketRepository.findWithDetailsById(id, creationBounds.since(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
+
+        if (ticket.getAssignedTo() != null && isActive(ticket.getStatus())) {
+            agentLoadTracker.decrement(ticket.getAssignedTo().getId());
+        }
+        TicketSnapshot before = TicketSnapshot.of(ticket);
+        // Without foreign keys nothing cascades: the ticket row goes first, so a reply that is
+        // being added concurrently either waits for it and fails, or is deleted along with the rest
+        ticketRepository.deleteByIdIn(List.of(id), ticket.getCreatedAt());
+        replyRepository.deleteByTicketIdIn(List.of(id), ticket.getCreatedAt());
+        ticketSearchIndex.remove(id);
+        eventPublisher.publishEvent(TicketEvent.deleted(before));
+    }
+
+    // If-Match is checked without locking; a concurrent commit is still caught by the @Version check
+    private static void checkPrecondition(Ticket ticket, String ifMatch) {
+        if (ifMatch != null && !ETagUtil.match(ifMatch, ETagUtil.ticket(ticket.getId(), ticket.getVersion()))) {
+            throw new PreconditionFailedException("Ticket " + ticket.getId() + " has been modified since it was read");
         }
-        ticketRepository.deleteById(id);
+    }
+
+    private static boolean isActive(TicketStatus status) {
+        return status != TicketStatus.CLOSED;
+    }
+
+    // Only the latest replies of each ticket are embedded: their ids are ranked in one query, then
+    // loaded with their authors in a second. The ticket's own associations are expected to be fetched
+    // already (see findPage / findWithDetailsById).
+    private List<TicketResponse> mapToTicketResponses(List<Ticket> tickets, int replies) {
+        if (tickets.isEmpty()) {
+            return List.of();
+        }
+
+        int embedded = Math.max(0, Math.min(replies, MAX_EMBEDDED_REPLIES));
+        List<Ticket> withReplies = tickets.stream()
+                .filter(ticket -> ticket.getReplyCount() > 0)
+                .toList();
+        Map<Long, List<ReplyResponse>> repliesByTicket = Map.of();
+        if (embedded > 0 && !withReplies.isEmpty()) {
+            List<Long> ticketIds = withReplies.stream().map(Ticket::getId).toList();
+            // Replies never predate their ticket, which limits the reply partitions read
+            LocalDateTime since = withReplies.stream().map(Ticket::getCreatedAt).min(LocalDateTime::compareTo).get();
+            List<Long> replyIds = replyRepository.findLatestIdsByTicketIdIn(ticketIds, since, embedded);
+            if (!replyIds.isEmpty()) {
+                repliesByTicket = replyRepository.findWithUserByIdIn(replyIds, since).stream()
+                        .collect(Collectors.groupingBy(reply -> reply.getTicket().getId(),
+                                Collectors.mapping(this::mapToReplyResponse, Collectors.toList())));
+            }
+        }
+
+        Map<Long, List<ReplyResponse>> latestReplies = repliesByTicket;
+        return tickets.stream()
+                .map(ticket -> mapToTicketResponse(ticket, latestReplies.getOrDefault(ticket.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 
     private TicketResponse mapToTicketResponse(Ticket ticket) {
-        UserResponse createdBy = new UserResponse(
-                ticket.getCreatedBy().getId(),
-                ticket.getCreatedBy().getName(),
-                ticket.getCreatedBy().getEmail(),
-                ticket.getCreatedBy().getRole()
-        );
+        return mapToTicketResponses(List.of(ticket), DEFAULT_EMBEDDED_REPLIES).get(0);
+    }
+
+    // Same shape as mapToTicketResponses, with the replies read from the archive
+    private List<TicketResponse> mapArchivedResponses(List<ArchivedTicket> tickets, int replies) {
+        if (tickets.isEmpty()) {
+            return List.of();
+        }
 
-        UserResponse assignedTo = null;
-        if (ticket.getAssignedTo() != null) {
-            assignedTo = new UserResponse(
-                    ticket.getAssignedTo().getId(),
-                    ticket.getAssignedTo().getName(),
-                    ticket.getAssignedTo().getEmail(),
-                    ticket.getAssignedTo().getRole()
-            );
-        }
-
-        ProblemTypeResponse problemType = null;
-        if (ticket.getProblemType() != null) {
-            problemType = new ProblemTypeResponse(
-                    ticket.getProblemType().getId(),
-                    ticket.getProblemType().getName(),
-                    ticket.getProblemType().getDescription()
-            );
-        }
-
-        List<ReplyResponse> replies = replyRepository.findByTicketIdOrderByCreatedAtAsc(ticket.getId())
-                .stream()
-                .map(reply -> new ReplyResponse(
-                        reply.getId(),
-                        reply.getContent(),
-                        reply.getCreatedAt(),
-                        new UserResponse(
-                                reply.getUser().getId(),
-                                reply.getUser().getName(),
-                                reply.getUser().getEmail(),
-                                reply.getUser().getRole()
-                        )
-                ))
+        int embedded = Math.max(0, Math.min(replies, MAX_EMBEDDED_REPLIES));
+        List<Long> ticketIds = tickets.stream()
+                .filter(ticket -> ticket.getReplyCount() > 0)
+                .map(ArchivedTicket::getId)
                 .collect(Collectors.toList());
+        Map<Long, List<ReplyResponse>> repliesByTicket = Map.of();
+        if (embedded > 0 && !ticketIds.isEmpty()) {
+            List<Long> replyIds = archivedReplyRepository.findLatestIdsByTicketIdIn(ticketIds, embedded);
+            if (!replyIds.isEmpty()) {
+                repliesByTicket = archivedReplyRepository.findWithUserByIdIn(replyIds).stream()
+                        .collect(Collectors.groupingBy(ArchivedReply::getTicketId,
+                                Collectors.mapping(this::mapArchivedReplyResponse, Collectors.toList())));
+            }
+        }
+
+        Map<Long, List<ReplyResponse>> latestReplies = repliesByTicket;
+        return tickets.stream()
+                .map(ticket -> new TicketResponse(
+                        ticket.getId(),
+                        ticket.getTitle(),
+                        ticket.getDescription(),
+                        ticket.getStatus(),
+                        ticket.getPriority(),
+                        ticket.getCreatedAt(),
+                        mapToUserResponse(ticket.getCreatedBy()),
+                        ticket.getAssignedTo() != null ? mapToUserResponse(ticket.getAssignedTo()) : null,
+                        ticket.getProblemType() != null
+                                ? problemTypeService.getProblemTypeById(ticket.getProblemType().getId())
+                                : null,
+                        ticket.getIsPublic(),
+                        ticket.getReplyCount(),
+                        latestReplies.getOrDefault(ticket.getId(), List.of()),
+                        ticket.getVersion()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps a ticket whose creator and assignee are already loaded. Public so the mapping can be
+     * benchmarked in isolation.
+     */
+    public TicketResponse mapToTicketResponse(Ticket ticket, List<ReplyResponse> replies) {
+        // Only the id is read from the association, so a lazy problem type is never initialized
+        ProblemTypeResponse problemType = ticket.getProblemType() != null
+                ? problemTypeService.getProblemTypeById(ticket.getProblemType().getId())
+                : null;
 
         return new TicketResponse(
                 ticket.getId(),
@@ -236,12 +684,25 @@ public class TicketService {
                 ticket.getStatus(),
                 ticket.getPriority(),
                 ticket.getCreatedAt(),
-                createdBy,
-                assignedTo,
+                mapToUserResponse(ticket.getCreatedBy()),
+                ticket.getAssignedTo() != null ? mapToUserResponse(ticket.getAssignedTo()) : null,
                 problemType,
                 ticket.getIsPublic(),
-                replies
+                ticket.getReplyCount(),
+                replies,
+                ticket.getVersion()
         );
     }
-}
 
+    private ReplyResponse mapToReplyResponse(Reply reply) {
+        return new ReplyResponse(reply.getId(), reply.getContent(), reply.getCreatedAt(), mapToUserResponse(reply.getUser()));
+    }
+
+    private ReplyResponse mapArchivedReplyResponse(ArchivedReply reply) {
+        return new ReplyResponse(reply.getId(), reply.getContent(), reply.getCreatedAt(), mapToUserResponse(reply.getUser()));
+    }
+
+    private UserResponse mapToUserResponse(User user) {
+        return new UserResponse(user.getId(), user.getName(), user.getEmail(), user.getRole());
+    }
+}
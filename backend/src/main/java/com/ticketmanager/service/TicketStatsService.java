@@ -0,0 +1,220 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.dto.TicketStatsResponse;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.event.TicketEvent;
+import com.ticketmanager.event.TicketEventType;
+import com.ticketmanager.event.TicketSnapshot;
+import com.ticketmanager.repository.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dashboard counters kept in memory and adjusted from committed ticket events. They are loaded from
+ * one GROUP BY query at startup and periodically compared against the database to correct drift.
+ *
+ * The counters are per instance: events are only published to the instance whose transaction
+ * committed, so changes made through other instances show up at the next reconciliation. With
+ * several instances, each may serve different totals for up to {@code stats.reconcile-interval}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketStatsService {
+    private static final Long NONE = 0L;
+
+    private final TicketRepository ticketRepository;
+    private final Counters counters = new Counters();
+    // Events are applied under the read lock; a reconciliation that may not be skipped again takes
+    // the write lock to pause them
+    private final ReadWriteLock applying = new ReentrantReadWriteLock();
+
+    // Reconciliations skipped in a row because events arrived during the query
+    @Value("${stats.max-skipped-reconciles:3}")
+    private int maxSkippedReconciles;
+    private int skippedReconciles;
+
+    @PostConstruct
+    void rebuild() {
+        counters.adjust(counters.snapshot(), loadFromDatabase());
+    }
+
+    public TicketStatsResponse getStats() {
+        return counters.toResponse();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketEvent(TicketEvent event) {
+        if (event.getType() == TicketEventType.REPLY_ADDED) {
+            return;
+        }
+        Lock lock = applying.readLock();
+        lock.lock();
+        try {
+            if (event.getBefore() != null) {
+                counters.add(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                counters.add(event.getAfter(), 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval:300000}", initialDelayString = "${stats.reconcile-interval:300000}")
+    void reconcile() {
+        if (skippedReconciles >= maxSkippedReconciles) {
+            reconcilePaused();
+            return;
+        }
+        // The counters are corrected by their difference to the database instead of being replaced,
+        // so events applied meanwhile stay counted. An event during the query may or may not be part
+        // of its result, so the comparison waits for a quiet round.
+        Snapshot before = counters.snapshot();
+        Snapshot expected = loadFromDatabase();
+        Snapshot after = counters.snapshot();
+        if (!before.equals(after)) {
+            skippedReconciles++;
+            log.debug("Ticket events arrived during reconciliation, comparing again next time");
+            return;
+        }
+        skippedReconciles = 0;
+        correct(before, expected);
+    }
+
+    // Under steady writes a quiet round may never come: events wait for the query instead. Only an
+    // event committed before the query but applied after it is counted twice, until the next round
+    private void reconcilePaused() {
+        Lock lock = applying.writeLock();
+        lock.lock();
+        try {
+            correct(counters.snapshot(), loadFromDatabase());
+        } finally {
+            lock.unlock();
+        }
+        skippedReconciles = 0;
+    }
+
+    private void correct(Snapshot counted, Snapshot expected) {
+        if (!expected.equals(counted)) {
+            log.warn("Ticket statistics drifted from the database, correcting counters");
+            counters.adjust(counted, expected);
+        }
+    }
+
+    private Snapshot loadFromDatabase() {
+        Counters loaded = new Counters();
+        for (Object[] row : ticketRepository.countGroupedByStatusPriorityProblemTypeAndAssignee()) {
+            loaded.add((TicketStatus) row[0], (Priority) row[1], (Long) row[2], (Long) row[3], (Long) row[4]);
+        }
+        return loaded.snapshot();
+    }
+
+    // Non-zero counts only, so equal counters have equal snapshots
+    private record Snapshot(long total, Map<TicketStatus, Long> byStatus, Map<Priority, Long> byPriority,
+                            Map<Long, Long> byProblemType, Map<Long, Long> byAssignee) {
+    }
+
+    private static final class Counters {
+        private final LongAdder total = new LongAdder();
+        private final Map<TicketStatus, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<Priority, LongAdder> byPriority = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> byProblemType = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> byAssignee = new ConcurrentHashMap<>();
+
+        void add(TicketSnapshot ticket, long delta) {
+            add(ticket.getStatus(), ticket.getPriority(), ticket.getProblemTypeId(), ticket.getAssignedToId(), delta);
+        }
+
+        void add(TicketStatus status, Priority priority, Long problemTypeId, Long assigneeId, long delta) {
+            total.add(delta);
+            byStatus.computeIfAbsent(status, key -> new LongAdder()).add(delta);
+            byPriority.computeIfAbsent(priority, key -> new LongAdder()).add(delta);
+            byProblemType.computeIfAbsent(problemTypeId != null ? problemTypeId : NONE, key -> new LongAdder()).add(delta);
+            byAssignee.computeIfAbsent(assigneeId != null ? assigneeId : NONE, key -> new LongAdder()).add(delta);
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(total.sum(), sums(byStatus), sums(byPriority), sums(byProblemType), sums(byAssignee));
+        }
+
+        // Moves every count by its change between the two snapshots
+        void adjust(Snapshot from, Snapshot to) {
+            total.add(to.total() - from.total());
+            adjust(byStatus, from.byStatus(), to.byStatus());
+            adjust(byPriority, from.byPriority(), to.byPriority());
+            adjust(byProblemType, from.byProblemType(), to.byProblemType());
+            adjust(byAssignee, from.byAssignee(), to.byAssignee());
+        }
+
+        TicketStatsResponse toResponse() {
+            Map<TicketStatus, Long> statuses = new EnumMap<>(TicketStatus.class);
+            for (TicketStatus status : TicketStatus.values()) {
+                statuses.put(status, sum(byStatus.get(status)));
+            }
+            Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                priorities.put(priority, sum(byPriority.get(priority)));
+            }
+            Map<Long, Long> problemTypes = new TreeMap<>();
+            byProblemType.forEach((id, count) -> {
+                if (!NONE.equals(id) && count.sum() != 0) {
+                    problemTypes.put(id, count.sum());
+                }
+            });
+            Map<Long, Long> assignees = new TreeMap<>();
+            byAssignee.forEach((id, count) -> {
+                if (!NONE.equals(id) && count.sum() != 0) {
+                    assignees.put(id, count.sum());
+                }
+            });
+            return new TicketStatsResponse(total.sum(), statuses, priorities, problemTypes, assignees, sum(byAssignee.get(NONE)));
+        }
+
+        private static long sum(LongAdder adder) {
+            return adder != null ? adder.sum() : 0;
+        }
+
+        private static <K> Map<K, Long> sums(Map<K, LongAdder> adders) {
+            Map<K, Long> sums = new HashMap<>();
+            adders.forEach((key, adder) -> {
+                long sum = adder.sum();
+                if (sum != 0) {
+                    sums.put(key, sum);
+                }
+            });
+            return sums;
+        }
+
+        private static <K> void adjust(Map<K, LongAdder> adders, Map<K, Long> from, Map<K, Long> to) {
+            Set<K> keys = new HashSet<>(from.keySet());
+            keys.addAll(to.keySet());
+            for (K key : keys) {
+                long delta = to.getOrDefault(key, 0L) - from.getOrDefault(key, 0L);
+                if (delta != 0) {
+                    adders.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.dto.AuthResponse;
+import com.ticketmanager.entity.RefreshToken;
+import com.ticketmanager.entity.RevokedToken;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.RefreshTokenRepository;
+import com.ticketmanager.repository.RevokedTokenRepository;
+import com.ticketmanager.security.TokenRevocationList;
+import com.ticketmanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues access/refresh token pairs. Refresh tokens are opaque, stored hashed and used once; a
+ * refresh token presented again after it was used means it leaked, and all of the user's refresh
+ * tokens are revoked. Access tokens are revoked through {@link TokenRevocationList}.
+ */
+@Slf4j
+@Service
+public class TokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationList revocationList;
+    private final JwtUtil jwtUtil;
+    private final Duration refreshExpiration;
+    private final SecureRandom random = new SecureRandom();
+
+    public TokenService(RefreshTokenRepository refreshTokenRepository,
+                        RevokedTokenRepository revokedTokenRepository,
+                        TokenRevocationList revocationList,
+                        JwtUtil jwtUtil,
+                        @Value("${jwt.refresh-expiration:14d}") Duration refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocationList = revocationList;
+        this.jwtUtil = jwtUtil;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    @Transactional
+    public AuthResponse issue(User user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken stored = new RefreshToken();
+        stored.setUser(user);
+        stored.setTokenHash(hash(refreshToken));
+        stored.setExpiresAt(LocalDateTime.now().plus(refreshExpiration));
+        refreshTokenRepository.save(stored);
+
+        return new AuthResponse(jwtUtil.generateToken(user), refreshToken, jwtUtil.getExpirationSeconds(),
+                user.getEmail(), user.getName(), user.getRole());
+    }
+
+    // Not rolled back on rejection: revoking the user's tokens after a reuse must stick
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findWithUserByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (stored.getRevokedAt() != null) {
+            int revoked = refreshTokenRepository.revokeAllByUserId(stored.getUser().getId(), now);
+            log.warn("Revoked refresh token reused for user {}, revoked {} other tokens", stored.getUser().getId(), revoked);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (!stored.getExpiresAt().isAfter(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        // Lost a race with a concurrent refresh of the same token
+        if (refreshTokenRepository.revoke(stored.getId(), now) == 0) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return issue(stored.getUser());
+    }
+
+    /**
+     * Revokes the given refresh token and access token; either may be null.
+     */
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findWithUserByTokenHash(hash(refreshToken))
+                    .ifPresent(stored -> refreshTokenRepository.revoke(stored.getId(), LocalDateTime.now()));
+        }
+        if (accessToken != null) {
+            Claims claims = jwtUtil.verify(accessToken);
+            if (claims != null && claims.getId() != null) {
+                revokeAccessToken(claims.getId(),
+                        LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+            }
+        }
+    }
+
+    private void revokeAccessToken(String tokenId, LocalDateTime expiresAt) {
+        if (revokedTokenRepository.existsByTokenId(tokenId)) {
+            return;
+        }
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenId(tokenId);
+        revoked.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(revoked);
+
+        // Effective on this instance as soon as it is committed; the others poll the table
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocationList.add(tokenId, expiresAt);
+            }
+        });
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
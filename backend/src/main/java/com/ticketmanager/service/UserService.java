@@ -9,10 +9,15 @@ import com.ticketmanager.entity.ProblemType;
 import com.ticketmanager.entity.Role;
 import com.ticketmanager.entity.User;
 import com.ticketmanager.exception.ResourceNotFoundException;
+import com.ticketmanager.exception.TooManyRequestsException;
+import com.ticketmanager.monitoring.RequestSqlStats;
 import com.ticketmanager.repository.ProblemTypeRepository;
 import com.ticketmanager.repository.UserRepository;
-import com.ticketmanager.util.JwtUtil;
+import com.ticketmanager.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -20,19 +25,32 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService implements UserDetailsService {
+    public static final String AGENTS_CACHE = "agents";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenService tokenService;
     private final ProblemTypeRepository problemTypeRepository;
+    private final ProblemTypeService problemTypeService;
+    private final AgentLoadTracker agentLoadTracker;
+    // The stages after hashing run SQL there, keeping the hashing pool's threads on BCrypt alone
+    private final Executor applicationTaskExecutor;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,7 +65,8 @@ public class UserService implements UserDetailsService {
                 .build();
     }
 
-    @Transactional(readOnly = true)
+    // Not read-only, so credentials come from the primary: a replica may lag behind a registration
+    @Transactional
     public User findByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
@@ -59,34 +78,63 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
-    public AuthResponse login(LoginRequest request) {
-        User user = findByEmail(request.getEmail());
+    /**
+     * Checks the password on the hashing pool, so the request thread is released while BCrypt runs.
+     * The tokens are issued on the application task executor.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        // Through the template: a call to findByEmail on this would bypass its transaction, and
+        // outside one the credentials could be read from a replica
+        User user = transactionTemplate.execute(status -> findByEmail(request.getEmail()));
+
+        return passwordHasher.matches(request.getPassword(), user.getPassword()).thenApplyAsync(matches -> {
+            if (!matches) {
+                throw new RuntimeException("Invalid credentials");
+            }
+            if (passwordHasher.upgradeEncoding(user.getPassword())) {
+                rehash(user, request.getPassword());
+            }
+            return tokenService.issue(user);
+        }, RequestSqlStats.propagating(applicationTaskExecutor));
+    }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
+    // The configured cost went up since this hash was computed. Done in the background: the user is
+    // not kept waiting, and if the pool is busy the next login tries again.
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHasher.encode(rawPassword)
+                    .thenAcceptAsync(hash -> userRepository.updatePassword(user.getId(), user.getPassword(), hash),
+                            RequestSqlStats.propagating(applicationTaskExecutor))
+                    .exceptionally(e -> {
+                        log.warn("Could not rehash the password of user {}", user.getId(), e);
+                        return null;
+                    });
+        } catch (TooManyRequestsException e) {
+            log.debug("Hashing pool busy, password rehash of user {} deferred", user.getId());
         }
-
-        String token = jwtUtil.generateToken(user.getEmail());
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole());
     }
 
-    @Transactional
-    public UserResponse register(RegisterRequest request) {
+    public CompletableFuture<UserResponse> register(RegisterRequest request) {
+        // Checked before spending a hash; the unique constraint still catches a concurrent registration
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
 
-        User user = new User();
-        user.setName(request.getName());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(Role.USER);
+        return passwordHasher.encode(request.getPassword()).thenApplyAsync(hash -> transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setName(request.getName());
+            user.setEmail(request.getEmail());
+            user.setPassword(hash);
+            user.setRole(Role.USER);
 
-        User savedUser = userRepository.save(user);
-        return mapToUserResponse(savedUser);
+            User savedUser = userRepository.save(user);
+            return mapToUserResponse(savedUser);
+        }), RequestSqlStats.propagating(applicationTaskExecutor));
     }
 
+    // Evicts this instance's agent list only; other instances see the agent once theirs expires
     @Transactional
+    @CacheEvict(cacheNames = AGENTS_CACHE, allEntries = true)
     public UserResponse createAgent(CreateAgentRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
@@ -98,22 +146,24 @@ public class UserService implements UserDetailsService {
         agent.setPassword(passwordEncoder.encode(request.getPassword()));
         agent.setRole(Role.AGENT);
 
-        // Set specializations
-        Set<ProblemType> specializations = request.getSpecializationIds().stream()
-                .map(id -> problemTypeRepository.findById(id)
-                        .orElseThrow(() -> new ResourceNotFoundException("Problem type not found with id: " + id)))
-                .collect(Collectors.toSet());
+        // Set specializations; unknown ids are rejected by the (cached) problem type lookup
+        request.getSpecializationIds().forEach(problemTypeService::getProblemTypeById);
+        Set<ProblemType> specializations = new HashSet<>(problemTypeRepository.findAllById(request.getSpecializationIds()));
         agent.setSpecializations(specializations);
 
         User savedAgent = userRepository.save(agent);
+        agentLoadTracker.registerAgent(savedAgent.getId(),
+                specializations.stream().map(ProblemType::getId).collect(Collectors.toSet()),
+                request.getCapacity() != null ? request.getCapacity() : 1);
         return mapToUserResponse(savedAgent);
     }
 
+    @Cacheable(AGENTS_CACHE)
     @Transactional(readOnly = true)
     public List<UserResponse> getAllAgents() {
         return userRepository.findByRole(Role.AGENT).stream()
                 .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -126,8 +176,9 @@ public class UserService implements UserDetailsService {
         return mapToUserResponse(agent);
     }
 
-    public UserResponse getCurrentUser(String email) {
-        User user = findByEmail(email);
+    @Transactional(readOnly = true)
+    public UserResponse getCurrentUser(Long id) {
+        User user = findById(id);
         return mapToUserResponse(user);
     }
 
@@ -0,0 +1,122 @@
+package com.ticketmanager.util;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Strong ETags derived from ticket versions, so they can be compared without rendering a response.
+ */
+public final class ETagUtil {
+    private static final Pattern VARIANT_SUFFIX = Pattern.compile("-(n|c|nc)\"$");
+
+    private ETagUtil() {
+    }
+
+    public static String ticket(Long id, Long version) {
+        return "\"t" + id + "." + version + "\"";
+    }
+
+    public static String replies(Long ticketId, Long version) {
+        return "\"r" + ticketId + "." + version + "\"";
+    }
+
+    /**
+     * Identifies a list page by the ids and versions of its tickets and whether another page follows.
+     */
+    public static String page(List<Long> ids, List<Long> versions, boolean hasMore) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < ids.size(); i++) {
+                digest.update((ids.get(i) + "." + versions.get(i) + ",").getBytes(StandardCharsets.US_ASCII));
+            }
+            digest.update(hasMore ? (byte) 1 : (byte) 0);
+            byte[] hash = Arrays.copyOf(digest.digest(), 16);
+            return "\"p" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Distinguishes the representations of a resource: normalized or full, and CBOR or JSON as
+     * negotiated from the Accept header. Responses carrying such a tag must vary by Accept.
+     */
+    public static String variant(String etag, boolean normalized, String accept) {
+        String suffix = (normalized ? "n" : "") + (prefersCbor(accept) ? "c" : "");
+        return suffix.isEmpty() ? etag : etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    public static String variant(String etag, String accept) {
+        return variant(etag, false, accept);
+    }
+
+    /**
+     * If-None-Match uses weak comparison: proxies that compress responses may weaken the tag.
+     */
+    public static boolean noneMatch(String header, String etag) {
+        return listed(header, etag, true, false);
+    }
+
+    /**
+     * If-Match uses strong comparison, weak tags never match. It is about the state of the resource,
+     * so any representation's tag of the current version matches the bare {@code etag}.
+     */
+    public static boolean match(String header, String etag) {
+        return listed(header, etag, false, true);
+    }
+
+    private static boolean listed(String header, String etag, boolean weak, boolean anyVariant) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (weak && tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (anyVariant) {
+                tag = VARIANT_SUFFIX.matcher(tag).replaceFirst("\"");
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The encoding content negotiation will pick. JSON is registered before CBOR, so CBOR is only
+    // chosen when the client ranks it above every type JSON is compatible with.
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(types);
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
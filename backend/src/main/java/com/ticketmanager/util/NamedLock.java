@@ -0,0 +1,67 @@
+package com.ticketmanager.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * MySQL named locks (GET_LOCK), so work that every instance schedules runs on one instance at a
+ * time. A named lock belongs to the connection that took it: that connection is held until the
+ * work is done, while the work itself runs on connections of its own. If the instance dies, the
+ * server releases the lock with the connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class NamedLock {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs the action unless another session holds the lock. Whether it ran.
+     */
+    public boolean tryRun(String name, Runnable action) {
+        return run(name, Duration.ZERO, action);
+    }
+
+    /**
+     * Runs the action once the lock is free, waiting at most {@code timeout}. Whether it ran.
+     */
+    public boolean run(String name, Duration timeout, Runnable action) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!acquire(connection, name, timeout)) {
+                return false;
+            }
+            try {
+                action.run();
+                return true;
+            } finally {
+                release(connection, name);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    // GET_LOCK returns 1 when taken, 0 on timeout and NULL on error
+    private static boolean acquire(Connection connection, String name, Duration timeout) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, name);
+            statement.setLong(2, timeout.toSeconds());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, name);
+            statement.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Composite indexes for the ticket list access paths. InnoDB appends the primary key to every
+-- secondary index, so (x, created_at) also serves the (created_at, id) keyset order.
+
+-- Agents: tickets assigned to them, usually filtered by status
+CREATE INDEX idx_tickets_assigned_status ON tickets (assigned_to, status);
+
+-- Users: their own tickets, newest first
+CREATE INDEX idx_tickets_created_by_created_at ON tickets (created_by, created_at);
+
+-- Dispatch and filtering by problem type
+CREATE INDEX idx_tickets_problem_type_status_priority ON tickets (problem_type_id, status, priority);
+
+-- Public ticket listings, newest first
+CREATE INDEX idx_tickets_public_created_at ON tickets (is_public, created_at);
+
+-- Admins: unfiltered listing, newest first
+CREATE INDEX idx_tickets_created_at ON tickets (created_at);
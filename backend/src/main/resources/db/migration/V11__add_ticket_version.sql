@@ -0,0 +1,2 @@
+-- Incremented on every ticket change and every new reply; drives ETags and optimistic locking
+ALTER TABLE tickets ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
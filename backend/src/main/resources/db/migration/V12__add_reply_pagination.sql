@@ -0,0 +1,8 @@
+-- Keyset order of the replies endpoint and of the latest-replies lookup
+CREATE INDEX idx_replies_ticket_created_id ON replies (ticket_id, created_at, id);
+
+-- Kept in step with the replies table by the reply write path
+ALTER TABLE tickets ADD COLUMN reply_count INT NOT NULL DEFAULT 0;
+
+UPDATE tickets t
+SET t.reply_count = (SELECT COUNT(*) FROM replies r WHERE r.ticket_id = t.id);
@@ -0,0 +1,41 @@
+-- Set when a ticket is closed and cleared when it is reopened; drives archival
+ALTER TABLE tickets ADD COLUMN closed_at TIMESTAMP NULL;
+
+-- Closed tickets predating the column start ageing from now
+UPDATE tickets SET closed_at = CURRENT_TIMESTAMP WHERE status = 'CLOSED';
+
+CREATE INDEX idx_tickets_status_closed_at ON tickets (status, closed_at);
+
+-- Closed tickets moved out of the live tables by the archival job. Descriptions and reply contents
+-- are stored COMPRESS()ed; the rows are never updated once written.
+CREATE TABLE archived_tickets (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description LONGBLOB NOT NULL,
+    status ENUM('OPEN', 'IN_PROGRESS', 'CLOSED') NOT NULL,
+    priority ENUM('LOW', 'MEDIUM', 'HIGH') NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    closed_at TIMESTAMP NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by BIGINT NOT NULL,
+    assigned_to BIGINT NULL,
+    problem_type_id BIGINT NULL,
+    is_public BOOLEAN NOT NULL,
+    version BIGINT NOT NULL,
+    reply_count INT NOT NULL,
+    FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (assigned_to) REFERENCES users(id) ON DELETE SET NULL,
+    FOREIGN KEY (problem_type_id) REFERENCES problem_types(id) ON DELETE SET NULL,
+    INDEX idx_archived_tickets_created_at (created_at)
+);
+
+CREATE TABLE archived_replies (
+    id BIGINT PRIMARY KEY,
+    ticket_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    content LONGBLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (ticket_id) REFERENCES archived_tickets(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_archived_replies_ticket_created_id (ticket_id, created_at, id)
+);
@@ -0,0 +1,47 @@
+-- Monthly RANGE partitioning of the live tables by creation time. Further partitions are added
+-- ahead of time, and expired empty ones dropped, by PartitionMaintainer.
+--
+-- MySQL does not allow foreign keys on partitioned tables, nor unique keys without the partitioning
+-- column: the foreign keys are dropped (their indexes stay) and created_at joins the primary keys.
+-- Referential integrity is kept by the services from here on. Both tables are rebuilt, so apply
+-- this migration in a maintenance window on large databases.
+
+SET @drop_fks = (
+    SELECT CONCAT('ALTER TABLE replies ', GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', constraint_name, '`')))
+    FROM information_schema.table_constraints
+    WHERE table_schema = DATABASE() AND table_name = 'replies' AND constraint_type = 'FOREIGN KEY'
+);
+PREPARE statement FROM @drop_fks;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @drop_fks = (
+    SELECT CONCAT('ALTER TABLE tickets ', GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', constraint_name, '`')))
+    FROM information_schema.table_constraints
+    WHERE table_schema = DATABASE() AND table_name = 'tickets' AND constraint_type = 'FOREIGN KEY'
+);
+PREPARE statement FROM @drop_fks;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+ALTER TABLE tickets
+    MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE replies
+    MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+-- TIMESTAMP columns can only be partitioned through UNIX_TIMESTAMP(). Partition pYYYYMM holds the
+-- rows created in that month (UTC); p_start holds everything before 2026-11-01T00:00:00Z.
+ALTER TABLE tickets PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_start VALUES LESS THAN (1793491200),
+    PARTITION p_max VALUES LESS THAN MAXVALUE
+);
+
+ALTER TABLE replies PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_start VALUES LESS THAN (1793491200),
+    PARTITION p_max VALUES LESS THAN MAXVALUE
+);
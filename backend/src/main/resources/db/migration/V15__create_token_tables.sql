@@ -0,0 +1,25 @@
+-- Long-lived refresh tokens, stored as SHA-256 hashes. Each is used once: refreshing revokes it and
+-- issues a successor.
+CREATE TABLE refresh_tokens (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_refresh_tokens_token_hash (token_hash),
+    INDEX idx_refresh_tokens_expires_at (expires_at)
+);
+
+-- Access tokens revoked before their expiry, by JWT id. Rows are only needed until the token would
+-- have expired anyway; every instance keeps them in memory.
+CREATE TABLE revoked_tokens (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    token_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_revoked_tokens_token_id (token_id),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
@@ -0,0 +1,16 @@
+-- Notifications written in the same transaction as the change they announce and delivered
+-- afterwards by the dispatcher. Delivered rows are deleted; rows that exhaust their attempts stay
+-- as FAILED for inspection.
+CREATE TABLE notification_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    type ENUM('TICKET_ASSIGNED', 'REPLY_ADDED') NOT NULL,
+    recipient_id BIGINT NOT NULL,
+    ticket_id BIGINT NOT NULL,
+    reply_id BIGINT NULL,
+    status ENUM('PENDING', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500) NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_notification_outbox_status_available_at (status, available_at)
+);
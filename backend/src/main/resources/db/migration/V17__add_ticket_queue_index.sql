@@ -0,0 +1,5 @@
+-- Pull queue: the oldest waiting (open, unassigned) ticket of one problem type and priority is the
+-- first entry of its range, so a claim reads and locks a single row. Supersedes the
+-- (problem_type_id, status, priority) index, whose filters still use its (problem_type_id, status) prefix.
+CREATE INDEX idx_tickets_queue ON tickets (problem_type_id, status, assigned_to, priority, created_at);
+DROP INDEX idx_tickets_problem_type_status_priority ON tickets;
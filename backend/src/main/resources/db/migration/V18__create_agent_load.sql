@@ -0,0 +1,17 @@
+-- Active (non-closed) ticket count per agent, shared by every backend instance when
+-- dispatch.load-tracker is "database". capacity weights the agent: dispatch picks the lowest
+-- active_tickets / capacity, kept in the indexed load_score column.
+CREATE TABLE agent_load (
+    agent_id BIGINT PRIMARY KEY,
+    active_tickets INT NOT NULL DEFAULT 0,
+    capacity INT NOT NULL DEFAULT 1,
+    load_score DECIMAL(12, 4) AS (active_tickets / capacity) STORED,
+    FOREIGN KEY (agent_id) REFERENCES users(id) ON DELETE CASCADE,
+    CHECK (capacity >= 1),
+    INDEX idx_agent_load_score (load_score, agent_id)
+);
+
+INSERT INTO agent_load (agent_id, active_tickets)
+SELECT u.id, (SELECT COUNT(*) FROM tickets t WHERE t.assigned_to = u.id AND t.status <> 'CLOSED')
+FROM users u
+WHERE u.role = 'AGENT';
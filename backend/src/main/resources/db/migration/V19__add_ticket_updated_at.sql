@@ -0,0 +1,9 @@
+-- Last change of a ticket row other than a new reply. After a restart the search index re-indexes
+-- the tickets changed since its last commit; new replies are found by their own created_at.
+ALTER TABLE tickets ADD COLUMN updated_at TIMESTAMP NULL;
+
+UPDATE tickets SET updated_at = created_at;
+
+ALTER TABLE tickets
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ADD INDEX idx_tickets_updated_at (updated_at);
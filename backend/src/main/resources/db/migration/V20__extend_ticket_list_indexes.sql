@@ -0,0 +1,12 @@
+-- Since V14 tickets is partitioned, and the ordered index scan over the partitions compares only the
+-- declared index columns: the primary key InnoDB appends no longer serves the (created_at, id)
+-- keyset order, and every list query sorted its matches. The list indexes now end in id explicitly.
+ALTER TABLE tickets
+    DROP INDEX idx_tickets_created_at,
+    ADD INDEX idx_tickets_created_at (created_at, id),
+    DROP INDEX idx_tickets_created_by_created_at,
+    ADD INDEX idx_tickets_created_by_created_at (created_by, created_at, id),
+    DROP INDEX idx_tickets_public_created_at,
+    ADD INDEX idx_tickets_public_created_at (is_public, created_at, id),
+    DROP INDEX idx_tickets_assigned_status,
+    ADD INDEX idx_tickets_assigned_status (assigned_to, status, created_at, id);
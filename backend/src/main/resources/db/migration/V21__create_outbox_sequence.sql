@@ -0,0 +1,9 @@
+-- Outbox ids come from a table-backed generator in blocks of 50, like ticket ids (V9), so the
+-- messages a transaction enqueues are inserted in one batch instead of one IDENTITY insert each.
+CREATE TABLE notification_outbox_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO notification_outbox_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM notification_outbox;
+
+ALTER TABLE notification_outbox MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,7 @@
+-- Backing table for the ticket id generator (MySQL has no native sequences).
+-- Hibernate hands out ids from blocks of 50, so inserts can be batched.
+CREATE TABLE ticket_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO ticket_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM tickets;
@@ -0,0 +1,64 @@
+package com.ticketmanager;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Base of the integration tests. They run on MySQL itself, migrated by Flyway: partitioning,
+ * SKIP LOCKED and EXPLAIN output have no embedded equivalent.
+ *
+ * The database is a MySQL 8 container shared by the whole run, or an existing server given with
+ * {@code -Dtest.datasource.url=jdbc:mysql://...} (and {@code test.datasource.username} /
+ * {@code test.datasource.password}). Without either, the tests are skipped. The database is not
+ * emptied between tests, so each test creates the rows it needs and only looks at those.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({TestData.class, SqlCapture.class})
+public abstract class MySqlIntegrationTest {
+    private static final String EXTERNAL_URL = System.getProperty("test.datasource.url");
+
+    private static MySQLContainer<?> container;
+
+    @BeforeAll
+    static void requireDatabase() {
+        Assumptions.assumeTrue(EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable(),
+                "Neither Docker nor test.datasource.url is available");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MySqlIntegrationTest::jdbcUrl);
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.username", () -> System.getProperty("test.datasource.username", "root"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.datasource.password", ""));
+            return;
+        }
+        MySQLContainer<?> mysql = container();
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    protected static String jdbcUrl() {
+        return EXTERNAL_URL != null ? EXTERNAL_URL : container().getJdbcUrl();
+    }
+
+    private static synchronized MySQLContainer<?> container() {
+        if (container == null) {
+            // root, so tests can create databases of their own (see ReplicaRoutingTest)
+            container = new MySQLContainer<>("mysql:8.0")
+                    .withUsername("root")
+                    .withUrlParam("serverTimezone", "UTC")
+                    .withUrlParam("rewriteBatchedStatements", "true");
+            container.start();
+        }
+        return container;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ticketmanager;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares while {@link #capture} runs, so tests can EXPLAIN the
+ * statements the application really sends. Only statements of the calling thread are recorded, not
+ * those of scheduled jobs that happen to run meanwhile.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlCapture {
+    private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+    @Bean
+    HibernatePropertiesCustomizer sqlCaptureCustomizer() {
+        return properties -> {
+            StatementInspector application = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                List<String> captured = statements.get();
+                if (captured != null) {
+                    captured.add(sql);
+                }
+                return application != null ? application.inspect(sql) : sql;
+            });
+        };
+    }
+
+    public List<String> capture(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        statements.set(captured);
+        try {
+            action.run();
+        } finally {
+            statements.remove();
+        }
+        return List.copyOf(captured);
+    }
+}
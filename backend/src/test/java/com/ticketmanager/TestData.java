@@ -0,0 +1,128 @@
+package com.ticketmanager;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Reply;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.ProblemTypeRepository;
+import com.ticketmanager.repository.ReplyRepository;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.UserRepository;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.AgentLoadTracker;
+import com.ticketmanager.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Creates rows for a test, each committed on its own. Names and emails are unique, so tests sharing
+ * a database never see each other's problem types or users.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestData {
+    public static final String PASSWORD = "password";
+    // BCrypt hash of PASSWORD, so creating users costs no hashing
+    private static final String PASSWORD_HASH = "$2a$10$Olx8hyYppvFZJJDiLogoV.S/j3hXAzpLKk/pm2TunDKGAGjl.Kri.";
+
+    private final ProblemTypeRepository problemTypeRepository;
+    private final UserRepository userRepository;
+    private final TicketRepository ticketRepository;
+    private final ReplyRepository replyRepository;
+    private final AgentLoadTracker agentLoadTracker;
+    private final JwtUtil jwtUtil;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProblemType problemType() {
+        ProblemType type = new ProblemType();
+        type.setName("TYPE_" + unique());
+        type.setDescription("Created by a test");
+        return problemTypeRepository.save(type);
+    }
+
+    /**
+     * A user of the role; agents are registered for dispatch with their specializations.
+     */
+    public User user(Role role, ProblemType... specializations) {
+        String name = role.name().toLowerCase() + "-" + unique();
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@test.local");
+        user.setPassword(PASSWORD_HASH);
+        user.setRole(role);
+        user.setSpecializations(new HashSet<>(Arrays.asList(specializations)));
+        return transactionTemplate.execute(status -> {
+            User saved = userRepository.save(user);
+            if (role == Role.AGENT) {
+                agentLoadTracker.registerAgent(saved.getId(),
+                        Arrays.stream(specializations).map(ProblemType::getId).collect(Collectors.toSet()), 1);
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * An open ticket, counted against its assignee's load when it has one.
+     */
+    public Ticket ticket(User creator, ProblemType type, User assignee, Priority priority) {
+        return ticket(creator, type, assignee, priority, true);
+    }
+
+    public Ticket ticket(User creator, ProblemType type, User assignee) {
+        return ticket(creator, type, assignee, Priority.MEDIUM);
+    }
+
+    public Ticket privateTicket(User creator, ProblemType type) {
+        return ticket(creator, type, null, Priority.MEDIUM, false);
+    }
+
+    private Ticket ticket(User creator, ProblemType type, User assignee, Priority priority, boolean isPublic) {
+        return transactionTemplate.execute(status -> {
+            Ticket ticket = new Ticket();
+            ticket.setTitle("Ticket " + unique());
+            ticket.setDescription("The printer shows a paper jam although the tray is empty.");
+            ticket.setStatus(TicketStatus.OPEN);
+            ticket.setPriority(priority);
+            ticket.setCreatedBy(creator);
+            ticket.setProblemType(type);
+            ticket.setIsPublic(isPublic);
+            ticket.setAssignedTo(assignee);
+            if (assignee != null) {
+                agentLoadTracker.increment(assignee.getId());
+            }
+            return ticketRepository.save(ticket);
+        });
+    }
+
+    public Reply reply(Ticket ticket, User author) {
+        return transactionTemplate.execute(status -> {
+            ticketRepository.registerReply(ticket.getId(), ticket.getCreatedAt());
+            Reply reply = new Reply();
+            reply.setTicket(ticket);
+            reply.setUser(author);
+            reply.setContent("Reply " + unique() + ": please restart the device and try again.");
+            return replyRepository.save(reply);
+        });
+    }
+
+    public AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    private static String unique() {
+        return UUID.randomUUID().toString().substring(0, 12);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ticketmanager.config;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.dto.AuthResponse;
+import com.ticketmanager.dto.LoginRequest;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.UserRepository;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between the primary and a replica on real connections. The replica is a second database
+ * on the same server with the primary's tables but none of its rows, like a replica far behind: a
+ * read it serves finds nothing, and SELECT DATABASE() tells which side a transaction ran on.
+ */
+class ReplicaRoutingTest extends MySqlIntegrationTest {
+    private static final String REPLICA = "ticket_replica";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replicas.urls", () -> jdbcUrl().replaceFirst("/[^/?]+(?=\\?|$)", "/" + REPLICA));
+        // Not replicating, so there is no lag to check
+        registry.add("datasource.replicas.max-lag-seconds", () -> 0);
+    }
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private String primary;
+
+    // The replica pool only connects once the database exists
+    @BeforeEach
+    void createReplica() {
+        primary = jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+        jdbcTemplate.execute("CREATE DATABASE IF NOT EXISTS " + REPLICA);
+        List<String> tables = jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_type = 'BASE TABLE'", String.class);
+        for (String table : tables) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + REPLICA + "." + table + " LIKE " + table);
+        }
+        routing.checkReplicas();
+        assertThat(routing.healthyReplicaCount()).isEqualTo(1);
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        assertThat(database(readOnly)).isEqualTo(REPLICA);
+        assertThat(database(readWrite)).isEqualTo(primary);
+    }
+
+    @Test
+    void aUserReadsFromThePrimaryRightAfterTheirWrite() {
+        AuthenticatedUser writer = testData.principal(testData.user(Role.USER));
+        AuthenticatedUser other = testData.principal(testData.user(Role.USER));
+
+        signIn(writer);
+        assertThat(database(readOnly)).isEqualTo(REPLICA);
+        assertThat(database(readWrite)).isEqualTo(primary);
+        assertThat(database(readOnly)).isEqualTo(primary);
+
+        signIn(other);
+        assertThat(database(readOnly)).isEqualTo(REPLICA);
+    }
+
+    @Test
+    void loginReadsCredentialsFromThePrimary() throws Exception {
+        User user = testData.user(Role.USER);
+        Optional<User> fromReplica = readOnly.execute(status -> userRepository.findByEmail(user.getEmail()));
+        assertThat(fromReplica).isEmpty();
+
+        LoginRequest request = new LoginRequest();
+        request.setEmail(user.getEmail());
+        request.setPassword(TestData.PASSWORD);
+        AuthResponse response = userService.login(request).get();
+
+        assertThat(response.getToken()).isNotBlank();
+    }
+
+    private String database(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static void signIn(AuthenticatedUser user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.ticketmanager.controller;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The JSON and CBOR encodings of a ticket are different representations: a cache or client holding
+ * one must never revalidate it with the other's tag.
+ */
+@AutoConfigureMockMvc
+class TicketETagTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private Ticket ticket;
+
+    @BeforeEach
+    void seed() {
+        ProblemType type = testData.problemType();
+        admin = testData.user(Role.ADMIN);
+        ticket = testData.ticket(testData.user(Role.USER), type, null);
+    }
+
+    @Test
+    void encodingsHaveTheirOwnTags() throws Exception {
+        String json = detailETag(MediaType.APPLICATION_JSON_VALUE);
+        String cbor = detailETag(MediaType.APPLICATION_CBOR_VALUE);
+
+        assertThat(cbor).isNotEqualTo(json);
+        assertThat(detailETag(MediaType.ALL_VALUE)).isEqualTo(json);
+        assertThat(detailETag("application/json;q=0.5, application/cbor")).isEqualTo(cbor);
+    }
+
+    @Test
+    void revalidatesOnlyWithTheTagOfTheSameEncoding() throws Exception {
+        String cbor = detailETag(MediaType.APPLICATION_CBOR_VALUE);
+
+        mockMvc.perform(detail(MediaType.APPLICATION_CBOR_VALUE).header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        mockMvc.perform(detail(MediaType.APPLICATION_JSON_VALUE).header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void anyEncodingsTagSatisfiesIfMatch() throws Exception {
+        String cbor = detailETag(MediaType.APPLICATION_CBOR_VALUE);
+
+        mockMvc.perform(put("/api/tickets/{id}", ticket.getId())
+                        .header(HttpHeaders.AUTHORIZATION, testData.bearer(admin))
+                        .header(HttpHeaders.IF_MATCH, cbor)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\":\"HIGH\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private String detailETag(String accept) throws Exception {
+        return mockMvc.perform(detail(accept))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder detail(String accept) {
+        return get("/api/tickets/{id}", ticket.getId())
+                .header(HttpHeaders.AUTHORIZATION, testData.bearer(admin))
+                .header(HttpHeaders.ACCEPT, accept);
+    }
+}
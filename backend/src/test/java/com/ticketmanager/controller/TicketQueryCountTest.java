@@ -0,0 +1,91 @@
+package com.ticketmanager.controller;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements per request of the ticket read endpoints, as counted by SqlBudgetFilter. The counts
+ * must not grow with the number of tickets or replies on a page, or an N+1 pattern has slipped in.
+ */
+@AutoConfigureMockMvc
+class TicketQueryCountTest extends MySqlIntegrationTest {
+    private static final int TICKETS = 10;
+    private static final int REPLIES_PER_TICKET = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private Ticket ticket;
+
+    @BeforeEach
+    void seed() {
+        ProblemType type = testData.problemType();
+        admin = testData.user(Role.ADMIN);
+        User creator = testData.user(Role.USER);
+        User agent = testData.user(Role.AGENT, type);
+        for (int i = 0; i < TICKETS; i++) {
+            ticket = testData.ticket(creator, type, i % 2 == 0 ? agent : null);
+            for (int j = 0; j < REPLIES_PER_TICKET; j++) {
+                testData.reply(ticket, j % 2 == 0 ? creator : agent);
+            }
+        }
+    }
+
+    @Test
+    void listingTicketsWithTheirLatestRepliesTakesThreeStatements() throws Exception {
+        // The page, the ids of the latest replies, the replies with their authors
+        assertThat(statements(get("/api/tickets").param("limit", String.valueOf(TICKETS)), "/api/tickets"))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void ticketDetailTakesThreeStatements() throws Exception {
+        assertThat(statements(get("/api/tickets/{id}", ticket.getId()), "/api/tickets/{id}"))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void replyPageTakesThreeStatements() throws Exception {
+        // The ticket version for the ETag, the ticket's creation time, the replies with their authors
+        assertThat(statements(get("/api/tickets/{ticketId}/replies", ticket.getId()), "/api/tickets/{ticketId}/replies"))
+                .isEqualTo(3);
+    }
+
+    // Statements of the second of two identical requests: the first one fills the caches
+    private long statements(MockHttpServletRequestBuilder request, String uri) throws Exception {
+        request.header(HttpHeaders.AUTHORIZATION, testData.bearer(admin));
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        DistributionSummary summary = meterRegistry.get("http.server.requests.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", uri)
+                .summary();
+        double before = summary.totalAmount();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return Math.round(summary.totalAmount() - before);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ticketmanager.monitoring;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * What SqlBudgetFilter sees of requests whose cost is not in the entities they load: bulk statements,
+ * and the SQL of an asynchronous request that runs on the password hashing pool.
+ */
+@AutoConfigureMockMvc
+class SqlAccountingTest extends MySqlIntegrationTest {
+    private static final int TICKETS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void bulkUpdateCountsTheRowsItWrites() throws Exception {
+        ProblemType type = testData.problemType();
+        User admin = testData.user(Role.ADMIN);
+        User creator = testData.user(Role.USER);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            ids.add(testData.ticket(creator, type, null).getId());
+        }
+        String body = "{\"ids\":" + ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"))
+                + ",\"priority\":\"HIGH\"}";
+
+        double before = total(rows("PATCH", "/api/tickets/bulk", "write"));
+        mockMvc.perform(patch("/api/tickets/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, testData.bearer(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        assertThat(total(rows("PATCH", "/api/tickets/bulk", "write")) - before).isGreaterThanOrEqualTo(TICKETS);
+    }
+
+    @Test
+    void loginCountsTheStatementsRunAfterHashing() throws Exception {
+        User user = testData.user(Role.USER);
+        String body = "{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + TestData.PASSWORD + "\"}";
+
+        double before = total(meterRegistry.find("http.server.requests.sql.statements")
+                .tag("method", "POST").tag("uri", "/api/auth/login"));
+        MvcResult started = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // The user lookup on the request thread, then at least the refresh token on the hashing pool
+        assertThat(total(meterRegistry.find("http.server.requests.sql.statements")
+                .tag("method", "POST").tag("uri", "/api/auth/login"))).isGreaterThanOrEqualTo(before + 2);
+    }
+
+    private Search rows(String method, String uri, String operation) {
+        return meterRegistry.find("http.server.requests.sql.rows")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("operation", operation);
+    }
+
+    private static double total(Search search) {
+        DistributionSummary summary = search.summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+}
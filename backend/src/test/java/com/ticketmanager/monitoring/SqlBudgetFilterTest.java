@@ -0,0 +1,83 @@
+package com.ticketmanager.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlBudgetFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlBudgetFilter filter = new SqlBudgetFilter(meterRegistry, 3, 100, 100, true);
+
+    @Test
+    void requestOverBudgetFails() {
+        FilterChain chain = (request, response) -> prepare(4);
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/tickets"),
+                new MockHttpServletResponse(), chain))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("4 statements");
+        assertThat(meterRegistry.get("http.server.requests.sql.over.budget").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void propagatedTasksCountAgainstTheRequest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            FilterChain chain = (request, response) -> {
+                prepare(1);
+                CompletableFuture.runAsync(() -> prepare(2), RequestSqlStats.propagating(executor)).join();
+            };
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/tickets"), new MockHttpServletResponse(), chain);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(statements().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void asynchronousRequestIsRecordedOnceAfterItsLastDispatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            prepare(1);
+            // As Spring MVC does for a controller returning a CompletableFuture
+            StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, response);
+            WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncRequest);
+            asyncRequest.startAsync();
+        });
+        assertThat(meterRegistry.find("http.server.requests.sql.statements").summary()).isNull();
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, (req, res) -> prepare(2));
+
+        assertThat(statements().count()).isEqualTo(1);
+        assertThat(statements().totalAmount()).isEqualTo(3);
+    }
+
+    private DistributionSummary statements() {
+        return meterRegistry.get("http.server.requests.sql.statements").summary();
+    }
+
+    private static void prepare(int statements) {
+        for (int i = 0; i < statements; i++) {
+            RequestSqlStats.statementPrepared();
+        }
+    }
+}
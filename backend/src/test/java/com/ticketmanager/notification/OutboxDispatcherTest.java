@@ -0,0 +1,165 @@
+package com.ticketmanager.notification;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.SqlCapture;
+import com.ticketmanager.TestData;
+import com.ticketmanager.entity.NotificationType;
+import com.ticketmanager.entity.OutboxMessage;
+import com.ticketmanager.entity.OutboxStatus;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Claiming, sending and settling outbox messages. The sender runs a check of its own for each
+ * message of this test; messages other tests left in the outbox are just delivered.
+ */
+@Import(OutboxDispatcherTest.RecordingSenderConfig.class)
+class OutboxDispatcherTest extends MySqlIntegrationTest {
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class RecordingSenderConfig {
+        @Bean
+        @Primary
+        RecordingSender recordingSender() {
+            return new RecordingSender();
+        }
+    }
+
+    static class RecordingSender implements NotificationSender {
+        final Map<Long, Consumer<Notification>> checks = new ConcurrentHashMap<>();
+
+        @Override
+        public void send(Notification notification) {
+            Consumer<Notification> check = checks.remove(notification.getId());
+            if (check != null) {
+                check.accept(notification);
+            }
+        }
+    }
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private RecordingSender sender;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private TestData testData;
+
+    private User agent;
+    private Ticket ticket;
+
+    @BeforeEach
+    void seed() {
+        ProblemType type = testData.problemType();
+        agent = testData.user(Role.AGENT, type);
+        ticket = testData.ticket(testData.user(Role.USER), type, agent);
+    }
+
+    @Test
+    void sendsLeasedMessagesOutsideAnyTransactionAndDeletesThem() {
+        OutboxMessage message = enqueue();
+        Map<String, Object> seen = new ConcurrentHashMap<>();
+        sender.checks.put(message.getId(), notification -> {
+            seen.put("transaction", TransactionSynchronizationManager.isActualTransactionActive());
+            // Fails at once if the claiming transaction still held the row
+            seen.put("availableAt", jdbcTemplate.queryForObject(
+                    "SELECT available_at FROM notification_outbox WHERE id = ? FOR UPDATE NOWAIT",
+                    LocalDateTime.class, notification.getId()));
+        });
+
+        dispatcher.drain();
+
+        assertThat(seen.get("transaction")).isEqualTo(false);
+        assertThat((LocalDateTime) seen.get("availableAt")).isAfter(LocalDateTime.now().plusMinutes(5));
+        assertThat(outboxMessageRepository.findById(message.getId())).isEmpty();
+    }
+
+    @Test
+    void failedMessagesBackOffOnceTheirLeaseIsSettled() {
+        OutboxMessage message = enqueue();
+        sender.checks.put(message.getId(), notification -> {
+            throw new IllegalStateException("webhook answered 503");
+        });
+
+        dispatcher.drain();
+
+        OutboxMessage failed = outboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(failed.getLastError()).isEqualTo("webhook answered 503");
+        // initial-backoff is 5 seconds
+        assertThat(failed.getAvailableAt()).isCloseTo(LocalDateTime.now().plusSeconds(5), within(3, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void aFailureIsNotRecordedOnceAnotherDispatcherHoldsTheLease() {
+        OutboxMessage message = enqueue();
+        LocalDateTime otherLease = LocalDateTime.now().plusHours(1).withNano(0);
+        sender.checks.put(message.getId(), notification -> {
+            // The lease ran out meanwhile and another instance claimed the message
+            jdbcTemplate.update("UPDATE notification_outbox SET available_at = ? WHERE id = ?", otherLease, notification.getId());
+            throw new IllegalStateException("timed out");
+        });
+
+        dispatcher.drain();
+
+        OutboxMessage untouched = outboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(untouched.getAttempts()).isZero();
+        assertThat(untouched.getAvailableAt()).isEqualTo(otherLease);
+    }
+
+    @Test
+    void lagIsReadFromTheEndOfTheStatusIndex() {
+        String sql = sqlCapture.capture(() -> outboxMessageRepository.findEarliestAvailableAt(OutboxStatus.PENDING)).stream()
+                .filter(statement -> statement.toLowerCase(Locale.ROOT).contains("min("))
+                .findFirst()
+                .orElseThrow();
+
+        Map<String, Object> plan = jdbcTemplate.queryForMap("EXPLAIN " + sql.replace("?", "'PENDING'"));
+
+        // MIN over the (status, available_at) index is a single lookup, however many messages wait
+        assertThat(plan.get("Extra")).isEqualTo("Select tables optimized away");
+    }
+
+    private OutboxMessage enqueue() {
+        OutboxMessage message = new OutboxMessage();
+        message.setType(NotificationType.TICKET_ASSIGNED);
+        message.setRecipientId(agent.getId());
+        message.setTicketId(ticket.getId());
+        // Due a minute ago, so it is claimed even if the clocks of JVM and database differ slightly
+        message.setAvailableAt(LocalDateTime.now().minusMinutes(1).withNano(0));
+        return outboxMessageRepository.save(message);
+    }
+}
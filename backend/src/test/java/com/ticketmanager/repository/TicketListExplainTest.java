@@ -0,0 +1,123 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.SqlCapture;
+import com.ticketmanager.TestData;
+import com.ticketmanager.dto.TicketPageResponse;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.service.TicketService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The ticket list queries, first pages and keyset continuations, use the index of their role's
+ * access path (V10, extended in V20). Where the filter pins every column before created_at, the
+ * index also delivers the (created_at, id) order, so no sort is needed.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TicketListExplainTest extends MySqlIntegrationTest {
+    private static final int PAGE = 10;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private final List<User> creators = new ArrayList<>();
+    private final List<User> agents = new ArrayList<>();
+    private User admin;
+
+    @BeforeAll
+    void seed() {
+        ProblemType type = testData.problemType();
+        admin = testData.user(Role.ADMIN);
+        for (int i = 0; i < 20; i++) {
+            creators.add(testData.user(Role.USER));
+        }
+        for (int i = 0; i < 10; i++) {
+            agents.add(testData.user(Role.AGENT, type));
+        }
+        for (int i = 0; i < 400; i++) {
+            testData.ticket(creators.get(i % creators.size()), type, i % 4 == 0 ? null : agents.get(i % agents.size()));
+        }
+        jdbcTemplate.execute("ANALYZE TABLE tickets");
+    }
+
+    @Test
+    void userListUsesCreatorIndex() {
+        assertPagesUse(testData.principal(creators.get(0)), new TicketFilter(), "idx_tickets_created_by_created_at", true);
+    }
+
+    @Test
+    void agentListUsesAssigneeIndex() {
+        // Without a status the agent's tickets are sorted, a few hundred rows at most
+        assertPagesUse(testData.principal(agents.get(0)), new TicketFilter(), "idx_tickets_assigned_status", false);
+    }
+
+    @Test
+    void agentListFilteredByStatusUsesAssigneeIndex() {
+        assertPagesUse(testData.principal(agents.get(0)), new TicketFilter(TicketStatus.OPEN, null, null, null),
+                "idx_tickets_assigned_status", true);
+    }
+
+    @Test
+    void adminListUsesCreationIndex() {
+        assertPagesUse(testData.principal(admin), new TicketFilter(), "idx_tickets_created_at", true);
+    }
+
+    // EXPLAINs the tickets query of the first page and of the page after it
+    private void assertPagesUse(AuthenticatedUser user, TicketFilter filter, String index, boolean ordered) {
+        AtomicReference<TicketPageResponse> first = new AtomicReference<>();
+        String firstPage = pageQuery(sqlCapture.capture(() -> first.set(
+                ticketService.getAllTickets(user, filter, TicketSort.CREATED_AT, Sort.Direction.DESC, null, PAGE, 0))));
+        assertThat(first.get().getNextCursor()).isNotNull();
+        String nextPage = pageQuery(sqlCapture.capture(() ->
+                ticketService.getAllTickets(user, filter, TicketSort.CREATED_AT, Sort.Direction.DESC,
+                        first.get().getNextCursor(), PAGE, 0)));
+
+        for (String sql : List.of(firstPage, nextPage)) {
+            Map<String, Object> plan = explainTickets(sql);
+            assertThat(plan.get("key")).as(sql).isEqualTo(index);
+            if (ordered) {
+                assertThat(String.valueOf(plan.get("Extra"))).as(sql).doesNotContain("filesort");
+            }
+        }
+    }
+
+    private static String pageQuery(List<String> statements) {
+        return statements.stream()
+                .filter(sql -> sql.contains(" from tickets ") && sql.contains(" order by "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No ticket page query in " + statements));
+    }
+
+    // Plan row of the tickets table, aliased t1_0 by Hibernate; the only parameter left is the limit
+    private Map<String, Object> explainTickets(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql.replace("?", String.valueOf(PAGE + 1))).stream()
+                .filter(row -> "t1_0".equals(row.get("table")))
+                .findFirst()
+                .orElseThrow();
+    }
+}
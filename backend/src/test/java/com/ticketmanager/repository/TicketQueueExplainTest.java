@@ -0,0 +1,69 @@
+package com.ticketmanager.repository;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.SqlCapture;
+import com.ticketmanager.TestData;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The pull queue ranks only each priority's oldest waiting tickets, read in order from the queue
+ * index, however many tickets wait.
+ */
+class TicketQueueExplainTest extends MySqlIntegrationTest {
+    private static final int LIMIT = 5;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void eachPriorityIsReadInIndexOrder() {
+        ProblemType type = testData.problemType();
+        User creator = testData.user(Role.USER);
+        for (int i = 0; i < 300; i++) {
+            testData.ticket(creator, type, null, Priority.values()[i % Priority.values().length]);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE tickets");
+
+        String sql = sqlCapture.capture(() -> ticketRepository.findRankedWaitingIds(List.of(type.getId()), "LOW,MEDIUM,HIGH", 3600, LIMIT))
+                .stream()
+                .filter(statement -> statement.contains("UNION ALL"))
+                .findFirst()
+                .orElseThrow();
+        // Parameters in order: three branches of problem type and limit, then the ranking
+        Iterator<Object> parameters = List.<Object>of(type.getId(), LIMIT, type.getId(), LIMIT, type.getId(), LIMIT,
+                "'LOW,MEDIUM,HIGH'", 3600, LIMIT).iterator();
+        Matcher placeholders = Pattern.compile("\\?").matcher(sql);
+        String explained = placeholders.replaceAll(match -> String.valueOf(parameters.next()));
+
+        List<Map<String, Object>> branches = jdbcTemplate.queryForList("EXPLAIN " + explained).stream()
+                .filter(row -> "tickets".equals(row.get("table")))
+                .toList();
+        assertThat(branches).hasSize(3).allSatisfy(row -> {
+            assertThat(row.get("key")).isEqualTo("idx_tickets_queue");
+            assertThat(String.valueOf(row.get("Extra"))).doesNotContain("filesort");
+        });
+    }
+}
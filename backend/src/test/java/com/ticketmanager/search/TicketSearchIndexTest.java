@@ -0,0 +1,159 @@
+package com.ticketmanager.search;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.dto.ReplyRequest;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Reply;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.service.ReplyService;
+import com.ticketmanager.service.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketSearchIndexTest extends MySqlIntegrationTest {
+    @Autowired
+    private TicketSearchIndex searchIndex;
+
+    @Autowired
+    private TicketSearchIndexer indexer;
+
+    @Autowired
+    private ReplyService replyService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private ProblemType type;
+    private User admin;
+    private User creator;
+
+    @BeforeEach
+    void seed() {
+        type = testData.problemType();
+        admin = testData.user(Role.ADMIN);
+        creator = testData.user(Role.USER);
+    }
+
+    @Test
+    void concurrentRepliesAreAllSearchable() throws Exception {
+        Ticket ticket = testData.ticket(creator, type, null);
+        int replies = 8;
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < replies; i++) {
+            words.add(word());
+        }
+
+        CyclicBarrier start = new CyclicBarrier(replies);
+        try (ExecutorService executor = Executors.newFixedThreadPool(replies)) {
+            CompletableFuture.allOf(words.stream()
+                    .map(word -> CompletableFuture.runAsync(() -> {
+                        ReplyRequest request = new ReplyRequest();
+                        request.setContent("Still broken, error code " + word);
+                        await(start);
+                        replyService.createReply(ticket.getId(), request, testData.principal(creator));
+                    }, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        }
+        searchIndex.refresh();
+
+        for (String word : words) {
+            assertThat(searchIndex.search(word, testData.principal(admin), 10)).containsExactly(ticket.getId());
+        }
+    }
+
+    @Test
+    void replyMatchesOnlyShowTicketsTheUserMayRead() throws Exception {
+        Ticket ticket = testData.privateTicket(creator, type);
+        searchIndex.index(ticket);
+        String word = word();
+        ReplyRequest request = new ReplyRequest();
+        request.setContent("The VPN drops every " + word);
+        replyService.createReply(ticket.getId(), request, testData.principal(creator));
+        searchIndex.refresh();
+
+        assertThat(searchIndex.search(word, testData.principal(creator), 10)).containsExactly(ticket.getId());
+        assertThat(searchIndex.search(word, testData.principal(testData.user(Role.USER)), 10)).isEmpty();
+    }
+
+    @Test
+    void catchUpIndexesWhatWasWrittenAfterTheLastCommit() throws Exception {
+        // Written without the services, like documents lost with a crashed process
+        Ticket ticket = testData.ticket(creator, type, null);
+        Reply reply = testData.reply(ticket, creator);
+        searchIndex.refresh();
+        assertThat(searchIndex.search(ticket.getTitle(), testData.principal(admin), 10)).doesNotContain(ticket.getId());
+
+        assertThat(searchIndex.getIndexedThrough()).isPresent();
+        indexer.catchUp();
+        searchIndex.refresh();
+
+        assertThat(searchIndex.search('"' + ticket.getTitle() + '"', testData.principal(admin), 10))
+                .containsExactly(ticket.getId());
+        assertThat(searchIndex.search('"' + reply.getContent() + '"', testData.principal(admin), 10))
+                .containsExactly(ticket.getId());
+    }
+
+    @Test
+    void syncIndexesWhatOtherInstancesWrote() throws Exception {
+        // Written without the services, as through another instance
+        Ticket ticket = testData.ticket(creator, type, null);
+        Reply reply = testData.reply(ticket, creator);
+
+        indexer.sync();
+        searchIndex.refresh();
+
+        assertThat(searchIndex.search('"' + ticket.getTitle() + '"', testData.principal(admin), 10))
+                .containsExactly(ticket.getId());
+        assertThat(searchIndex.search('"' + reply.getContent() + '"', testData.principal(admin), 10))
+                .containsExactly(ticket.getId());
+    }
+
+    @Test
+    void hitsNoLongerInTheDatabaseAreRemoved() throws Exception {
+        Ticket ticket = testData.ticket(creator, type, null);
+        searchIndex.index(ticket);
+        searchIndex.refresh();
+        String title = '"' + ticket.getTitle() + '"';
+        assertThat(searchIndex.search(title, testData.principal(admin), 10)).containsExactly(ticket.getId());
+
+        // Deleted through another instance
+        jdbcTemplate.update("DELETE FROM tickets WHERE id = ?", ticket.getId());
+
+        assertThat(ticketService.searchTickets(title, testData.principal(admin), 10, 0)).isEmpty();
+        searchIndex.refresh();
+        assertThat(searchIndex.search(title, testData.principal(admin), 10)).isEmpty();
+    }
+
+    private static String word() {
+        return "zq" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ticketmanager.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientAddressResolverTest {
+    private final ClientAddressResolver behindProxy = new ClientAddressResolver(List.of("10.0.0.0/8", "127.0.0.0/8", "::1"));
+
+    @Test
+    void clientsBehindATrustedProxyAreToldApart() {
+        assertThat(behindProxy.resolve(request("10.0.0.5", "203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(behindProxy.resolve(request("10.0.0.5", "198.51.100.2"))).isEqualTo("198.51.100.2");
+    }
+
+    @Test
+    void addressesAClientPrependsAreIgnored() {
+        // The client claims to be 1.2.3.4; the proxy appended where the connection really came from
+        MockHttpServletRequest request = request("10.0.0.5", "1.2.3.4, 203.0.113.7");
+
+        assertThat(behindProxy.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void chainedProxiesAreFollowed() {
+        MockHttpServletRequest request = request("::1", "203.0.113.7");
+        request.addHeader(ClientAddressResolver.FORWARDED_FOR, "10.1.2.3");
+
+        assertThat(behindProxy.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void theHeaderOfAnUntrustedPeerIsIgnored() {
+        assertThat(behindProxy.resolve(request("198.51.100.9", "203.0.113.7"))).isEqualTo("198.51.100.9");
+        assertThat(new ClientAddressResolver(List.of()).resolve(request("10.0.0.5", "203.0.113.7"))).isEqualTo("10.0.0.5");
+    }
+
+    @Test
+    void hostNamesAreNotResolved() {
+        // localhost would resolve to a trusted address
+        assertThat(behindProxy.resolve(request("10.0.0.5", "203.0.113.7, localhost"))).isEqualTo("localhost");
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader(ClientAddressResolver.FORWARDED_FOR, forwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ticketmanager.security;
+
+import com.ticketmanager.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+    private final LoginThrottle throttle = new LoginThrottle(20, Duration.ofSeconds(3), 5, Duration.ofSeconds(30), 1000);
+
+    @Test
+    void anAccountIsLimitedPerClientAddress() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("10.0.0.1", "owner@test.local");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.1", " Owner@Test.local"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void attemptsFromOtherAddressesDoNotLockTheOwnerOut() {
+        for (int i = 0; i < 50; i++) {
+            String attacker = "10.0.1." + i;
+            for (int j = 0; j < 5; j++) {
+                throttle.acquire(attacker, "owner@test.local");
+            }
+        }
+
+        assertThatCode(() -> throttle.acquire("192.168.0.7", "owner@test.local")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void aClientAddressIsLimitedAcrossAccounts() {
+        for (int i = 0; i < 20; i++) {
+            throttle.acquire("10.0.0.2", "user" + i + "@test.local");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.2", "another@test.local"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+}
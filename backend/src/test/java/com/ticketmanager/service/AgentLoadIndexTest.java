@@ -0,0 +1,55 @@
+package com.ticketmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AgentLoadIndexTest {
+    private static final Long AGENT = 1L;
+
+    private final AgentLoadIndex index = new AgentLoadIndex(null, null);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void aRolledBackDecrementOfAnIdleAgentLeavesTheCountAtZero() {
+        index.registerAgent(AGENT, Set.of(10L), 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.decrement(AGENT);
+        rollBack();
+
+        assertThat(index.activeTickets(AGENT)).isZero();
+    }
+
+    @Test
+    void rolledBackChangesAreReverted() {
+        index.registerAgent(AGENT, Set.of(10L), 1);
+        index.increment(AGENT);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.increment(AGENT);
+        index.decrement(AGENT);
+        index.decrement(AGENT);
+        rollBack();
+
+        assertThat(index.activeTickets(AGENT)).isEqualTo(1);
+    }
+
+    private static void rollBack() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,146 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.dto.AssignTicketRequest;
+import com.ticketmanager.dto.CreateTicketRequest;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.dto.UpdateTicketRequest;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.AgentLoadRepository;
+import com.ticketmanager.security.AuthenticatedUser;
+import com.ticketmanager.util.NamedLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup reconciliation of the agent_load table while other instances dispatch, as in a rolling
+ * deploy. Each instance is a tracker of its own on its own connections; they share the database and
+ * its locks like separate processes do.
+ */
+@TestPropertySource(properties = "dispatch.load-tracker=database")
+class AgentLoadReconcileTest extends MySqlIntegrationTest {
+    private static final int INSTANCES = 3;
+    private static final int DISPATCHERS = 4;
+    private static final int TICKETS_PER_DISPATCHER = 20;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private AgentLoadRepository agentLoadRepository;
+
+    @Autowired
+    private NamedLock namedLock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void countsRepairedDuringDispatchMatchTheTickets() throws Exception {
+        ProblemType type = testData.problemType();
+        AuthenticatedUser creator = testData.principal(testData.user(Role.USER));
+        AuthenticatedUser admin = testData.principal(testData.user(Role.ADMIN));
+        List<User> agents = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            agents.add(testData.user(Role.AGENT, type));
+        }
+        // Left behind by the in-memory tracker
+        for (User agent : agents) {
+            jdbcTemplate.update("UPDATE agent_load SET active_tickets = 50 WHERE agent_id = ?", agent.getId());
+        }
+
+        AtomicBoolean dispatching = new AtomicBoolean(true);
+        CyclicBarrier start = new CyclicBarrier(INSTANCES + DISPATCHERS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(INSTANCES + DISPATCHERS)) {
+            List<CompletableFuture<Void>> reconciling = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) {
+                DatabaseAgentLoadTracker instance = new DatabaseAgentLoadTracker(agentLoadRepository, namedLock, transactionManager);
+                reconciling.add(CompletableFuture.runAsync(() -> {
+                    await(start);
+                    while (dispatching.get()) {
+                        instance.reconcile();
+                    }
+                }, executor));
+            }
+            List<CompletableFuture<Void>> dispatchers = new ArrayList<>();
+            for (int i = 0; i < DISPATCHERS; i++) {
+                dispatchers.add(CompletableFuture.runAsync(() -> {
+                    await(start);
+                    // Creates tickets, which dispatch assigns, reassigns every third one and closes every other one
+                    for (int j = 0; j < TICKETS_PER_DISPATCHER; j++) {
+                        TicketResponse ticket = ticketService.createTicket(ticketRequest(type), creator);
+                        if (j % 3 == 0) {
+                            AssignTicketRequest reassign = new AssignTicketRequest();
+                            reassign.setAgentId(agents.get(j % agents.size()).getId());
+                            ticketService.assignTicket(ticket.getId(), reassign, null);
+                        }
+                        if (j % 2 == 1) {
+                            UpdateTicketRequest close = new UpdateTicketRequest();
+                            close.setStatus(TicketStatus.CLOSED);
+                            ticketService.updateTicket(ticket.getId(), close, admin, null);
+                        }
+                    }
+                }, executor));
+            }
+            try {
+                CompletableFuture.allOf(dispatchers.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+            } finally {
+                dispatching.set(false);
+            }
+            CompletableFuture.allOf(reconciling.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        }
+
+        int active = 0;
+        for (User agent : agents) {
+            int counted = jdbcTemplate.queryForObject(
+                    "SELECT active_tickets FROM agent_load WHERE agent_id = ?", Integer.class, agent.getId());
+            int actual = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM tickets WHERE assigned_to = ? AND status <> 'CLOSED'", Integer.class, agent.getId());
+            assertThat(counted).as("active tickets of agent %d", agent.getId()).isEqualTo(actual);
+            active += actual;
+        }
+        assertThat(active).isEqualTo(DISPATCHERS * TICKETS_PER_DISPATCHER / 2);
+    }
+
+    private static CreateTicketRequest ticketRequest(ProblemType type) {
+        CreateTicketRequest request = new CreateTicketRequest();
+        request.setTitle("Scanner offline");
+        request.setDescription("The scanner on the second floor does not show up on the network.");
+        request.setPriority(Priority.MEDIUM);
+        request.setProblemTypeId(type.getId());
+        return request;
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
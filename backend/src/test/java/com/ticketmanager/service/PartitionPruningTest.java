@@ -0,0 +1,224 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.SqlCapture;
+import com.ticketmanager.TestData;
+import com.ticketmanager.dto.TicketPageResponse;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.repository.ArchivedReplyRepository;
+import com.ticketmanager.repository.ArchivedTicketRepository;
+import com.ticketmanager.repository.ReplyRepository;
+import com.ticketmanager.repository.TicketFilter;
+import com.ticketmanager.repository.TicketRepository;
+import com.ticketmanager.repository.TicketSort;
+import com.ticketmanager.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The partitions (see V14) the ticket and reply queries read, from EXPLAIN. One ticket is moved into
+ * December 2026, whose partition is created ahead of time, so the bounds have partitions to prune.
+ * For lookups by id, TicketCreationBounds is refreshed as of February 2027, when December is closed.
+ */
+class PartitionPruningTest extends MySqlIntegrationTest {
+    private static final LocalDateTime DECEMBER = LocalDateTime.of(2026, 12, 10, 12, 0);
+    private static final Set<String> FROM_DECEMBER = Set.of("p202612", "p202701", "p_max");
+    private static final Pattern TABLES = Pattern.compile("(?i)\\b(from|update) (tickets|replies)\\b");
+    private static final DateTimeFormatter LITERAL = DateTimeFormatter.ofPattern("''yyyy-MM-dd HH:mm:ss''");
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketCreationBounds creationBounds;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ReplyRepository replyRepository;
+
+    @Autowired
+    private ArchivedTicketRepository archivedTicketRepository;
+
+    @Autowired
+    private ArchivedReplyRepository archivedReplyRepository;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private AuthenticatedUser admin;
+    private Ticket older;
+    private Ticket december;
+
+    @BeforeEach
+    void seed() {
+        ProblemType type = testData.problemType();
+        User creator = testData.user(Role.USER);
+        admin = testData.principal(testData.user(Role.ADMIN));
+        older = testData.ticket(creator, type, null);
+        december = testData.ticket(creator, type, null);
+        testData.reply(december, creator);
+        jdbcTemplate.update("UPDATE tickets SET created_at = ?, updated_at = ? WHERE id = ?", DECEMBER, DECEMBER, december.getId());
+        jdbcTemplate.update("UPDATE replies SET created_at = ? WHERE ticket_id = ?", DECEMBER.plusDays(1), december.getId());
+    }
+
+    @AfterEach
+    void removeDecemberAndRestoreBounds() {
+        jdbcTemplate.update("DELETE FROM replies WHERE ticket_id = ?", december.getId());
+        jdbcTemplate.update("DELETE FROM tickets WHERE id = ?", december.getId());
+        creationBounds.refresh();
+    }
+
+    @Test
+    void listWithinACreationRangeReadsOnlyItsPartition() {
+        TicketFilter filter = new TicketFilter();
+        filter.setCreatedFrom(LocalDateTime.of(2026, 12, 1, 0, 0));
+        filter.setCreatedTo(LocalDateTime.of(2027, 1, 1, 0, 0));
+
+        String page = pageQuery(sqlCapture.capture(() ->
+                ticketService.getAllTickets(admin, filter, TicketSort.CREATED_AT, Sort.Direction.DESC, null, 10, 0)));
+
+        assertThat(partitions(page, 11)).containsExactly("p202612");
+    }
+
+    @Test
+    void keysetPageReadsNoPartitionAfterItsCursor() {
+        AtomicReference<TicketPageResponse> first = new AtomicReference<>();
+        sqlCapture.capture(() -> first.set(ticketService.getAllTickets(
+                admin, new TicketFilter(), TicketSort.CREATED_AT, Sort.Direction.DESC, null, 1, 0)));
+        assertThat(first.get().getItems().get(0).getId()).isEqualTo(december.getId());
+
+        String nextPage = pageQuery(sqlCapture.capture(() -> ticketService.getAllTickets(
+                admin, new TicketFilter(), TicketSort.CREATED_AT, Sort.Direction.DESC, first.get().getNextCursor(), 1, 0)));
+
+        assertThat(partitions(nextPage, 2)).contains("p_start").doesNotContain("p202701", "p_max");
+    }
+
+    @Test
+    void lookupsByIdReadFromTheTicketsMonthOn() {
+        creationBounds.refresh(Instant.parse("2027-02-01T02:00:00Z"));
+        LocalDateTime since = creationBounds.since(december.getId());
+        assertThat(since).isEqualTo(LocalDateTime.ofInstant(Instant.parse("2026-12-01T00:00:00Z"), ZoneId.systemDefault()));
+        assertThat(creationBounds.since(older.getId())).isEqualTo(TicketCreationBounds.UNBOUNDED);
+
+        Long id = december.getId();
+        assertThat(partitions(single(sqlCapture.capture(() -> ticketRepository.findWithDetailsById(id, since))), id, since))
+                .isSubsetOf(FROM_DECEMBER);
+        assertThat(partitions(single(sqlCapture.capture(() -> ticketRepository.findVersionById(id, since))), id, since))
+                .isSubsetOf(FROM_DECEMBER);
+        assertThat(partitions(single(sqlCapture.capture(() -> ticketRepository.findCreatedAtById(id, since))), id, since))
+                .isSubsetOf(FROM_DECEMBER);
+        assertThat(partitions(single(sqlCapture.capture(() -> inRollback(() -> ticketRepository.registerReply(id, since)))), id, since))
+                .isSubsetOf(FROM_DECEMBER);
+        assertThat(partitions(single(sqlCapture.capture(() ->
+                replyRepository.findFirstPage(id, DECEMBER, PageRequest.ofSize(11)))), id, DECEMBER, 0, 11))
+                .isSubsetOf(FROM_DECEMBER);
+    }
+
+    @Test
+    void retentionStatementsReadOnlyThePartitionsOfTheBatch() {
+        creationBounds.refresh(Instant.parse("2027-02-01T02:00:00Z"));
+        List<Long> ids = List.of(december.getId());
+        LocalDateTime since = creationBounds.since(ids);
+
+        List<String> statements = sqlCapture.capture(() -> inRollback(() -> {
+            archivedTicketRepository.copyFromLive(ids, since);
+            archivedReplyRepository.copyFromLive(ids, since);
+            replyRepository.deleteByTicketIdIn(ids, since);
+            ticketRepository.deleteByIdIn(ids, since);
+        }));
+
+        assertThat(own(statements)).hasSize(4);
+        for (String sql : own(statements)) {
+            assertThat(partitions(sql, december.getId(), since)).as(sql).isNotEmpty().isSubsetOf(FROM_DECEMBER);
+        }
+    }
+
+    private void inRollback(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            action.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    // The partitions of tickets and replies the statement reads, with its parameters filled in order
+    private Set<String> partitions(String sql, Object... parameters) {
+        StringBuilder statement = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                assertThat(parameter).as(sql).isLessThan(parameters.length);
+                Object value = parameters[parameter++];
+                statement.append(value instanceof LocalDateTime time ? LITERAL.format(time) : value);
+            } else {
+                statement.append(c);
+            }
+        }
+        assertThat(parameter).as(sql).isEqualTo(parameters.length);
+
+        // MySQL 8 always lists the partitions; MariaDB only with EXPLAIN PARTITIONS
+        String explain = isMariaDb() ? "EXPLAIN PARTITIONS " : "EXPLAIN ";
+        Set<String> partitions = new TreeSet<>();
+        jdbcTemplate.queryForList(explain + statement).stream()
+                .map(row -> (String) row.get("partitions"))
+                .filter(Objects::nonNull)
+                .forEach(names -> partitions.addAll(List.of(names.split(","))));
+        return partitions;
+    }
+
+    private boolean isMariaDb() {
+        return jdbcTemplate.queryForObject("SELECT VERSION()", String.class).contains("MariaDB");
+    }
+
+    private static String pageQuery(List<String> statements) {
+        return statements.stream()
+                .filter(sql -> sql.contains(" from tickets ") && sql.contains(" order by "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No ticket page query in " + statements));
+    }
+
+    private static String single(List<String> statements) {
+        List<String> own = own(statements);
+        assertThat(own).hasSize(1);
+        return own.get(0);
+    }
+
+    // Scheduled jobs may run statements of their own meanwhile
+    private static List<String> own(List<String> statements) {
+        return statements.stream()
+                .filter(sql -> TABLES.matcher(sql).find())
+                .toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.MySqlIntegrationTest;
+import com.ticketmanager.TestData;
+import com.ticketmanager.dto.TicketResponse;
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.ProblemType;
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.Ticket;
+import com.ticketmanager.entity.User;
+import com.ticketmanager.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The pull queue of POST /api/agents/me/next on real row locks.
+ */
+class TicketQueueTest extends MySqlIntegrationTest {
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private ProblemType type;
+    private User creator;
+
+    @BeforeEach
+    void seed() {
+        type = testData.problemType();
+        creator = testData.user(Role.USER);
+    }
+
+    @Test
+    void theHighestPriorityIsClaimedFirst() {
+        Ticket low = testData.ticket(creator, type, null, Priority.LOW);
+        Ticket high = testData.ticket(creator, type, null, Priority.HIGH);
+        Ticket medium = testData.ticket(creator, type, null, Priority.MEDIUM);
+        AuthenticatedUser agent = testData.principal(testData.user(Role.AGENT, type));
+
+        assertThat(claimedIds(agent, 4)).containsExactly(high.getId(), medium.getId(), low.getId());
+    }
+
+    @Test
+    void aTicketAnotherAgentIsClaimingIsPassedOver() throws Exception {
+        Ticket first = testData.ticket(creator, type, null, Priority.HIGH);
+        Ticket second = testData.ticket(creator, type, null, Priority.LOW);
+        AuthenticatedUser agent = testData.principal(testData.user(Role.AGENT, type));
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM tickets WHERE id = ? FOR UPDATE", first.getId());
+            locked.countDown();
+            await(claimed);
+        }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(ticketService.claimNextTicket(agent)).map(TicketResponse::getId).contains(second.getId());
+        } finally {
+            claimed.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(ticketService.claimNextTicket(agent)).map(TicketResponse::getId).contains(first.getId());
+    }
+
+    @Test
+    void concurrentClaimsTakeEachTicketExactlyOnce() throws Exception {
+        int agents = 8;
+        int tickets = 60;
+        List<Long> ticketIds = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            ticketIds.add(testData.ticket(creator, type, null, Priority.values()[i % Priority.values().length]).getId());
+        }
+        List<AuthenticatedUser> principals = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            principals.add(testData.principal(testData.user(Role.AGENT, type)));
+        }
+
+        // Every agent claims until the queue is empty
+        CyclicBarrier start = new CyclicBarrier(agents);
+        List<CompletableFuture<List<Long>>> claims;
+        try (ExecutorService executor = Executors.newFixedThreadPool(agents)) {
+            claims = principals.stream()
+                    .map(agent -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return claimedIds(agent, tickets + 1);
+                    }, executor))
+                    .toList();
+            CompletableFuture.allOf(claims.toArray(CompletableFuture[]::new)).join();
+        }
+
+        Map<Long, Long> claimedBy = new HashMap<>();
+        List<Long> allClaimed = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            for (Long id : claims.get(i).join()) {
+                allClaimed.add(id);
+                claimedBy.put(id, principals.get(i).getId());
+            }
+        }
+        assertThat(allClaimed).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(ticketIds);
+        // Each ticket is assigned to the agent its claim was returned to
+        Map<Long, Long> assignees = jdbcTemplate.queryForList(
+                        "SELECT id, assigned_to FROM tickets WHERE problem_type_id = ?", type.getId()).stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("id")).longValue(),
+                        row -> ((Number) row.get("assigned_to")).longValue()));
+        assertThat(assignees).isEqualTo(claimedBy);
+    }
+
+    // Claims until the queue is empty, at most the given number of times
+    private List<Long> claimedIds(AuthenticatedUser agent, int attempts) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            Optional<Long> claimed = ticketService.claimNextTicket(agent).map(TicketResponse::getId);
+            if (claimed.isEmpty()) {
+                break;
+            }
+            ids.add(claimed.get());
+        }
+        return ids;
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ticketmanager.service;
+
+import com.ticketmanager.entity.Priority;
+import com.ticketmanager.entity.TicketStatus;
+import com.ticketmanager.event.TicketEvent;
+import com.ticketmanager.event.TicketSnapshot;
+import com.ticketmanager.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketStatsServiceTest {
+    private static final long PROBLEM_TYPE = 7L;
+
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final TicketStatsService statsService = new TicketStatsService(ticketRepository);
+
+    @BeforeEach
+    void loadOneOpenTicket() {
+        ReflectionTestUtils.setField(statsService, "maxSkippedReconciles", 3);
+        when(ticketRepository.countGroupedByStatusPriorityProblemTypeAndAssignee()).thenReturn(rows(1));
+        statsService.rebuild();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        when(ticketRepository.countGroupedByStatusPriorityProblemTypeAndAssignee()).thenReturn(rows(3));
+
+        statsService.reconcile();
+
+        assertThat(statsService.getStats().getTotal()).isEqualTo(3);
+        assertThat(statsService.getStats().getByStatus()).containsEntry(TicketStatus.OPEN, 3L);
+        assertThat(statsService.getStats().getByProblemType()).containsEntry(PROBLEM_TYPE, 3L);
+    }
+
+    @Test
+    void ticketCreatedDuringReconcileIsNotLost() {
+        // The query has read one ticket when a second one is committed and counted
+        when(ticketRepository.countGroupedByStatusPriorityProblemTypeAndAssignee()).thenAnswer(invocation -> {
+            statsService.onTicketEvent(TicketEvent.created(openTicket(2L)));
+            return rows(1);
+        });
+
+        statsService.reconcile();
+
+        assertThat(statsService.getStats().getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void eventsAfterACorrectionKeepCounting() {
+        when(ticketRepository.countGroupedByStatusPriorityProblemTypeAndAssignee()).thenReturn(rows(2));
+        statsService.reconcile();
+
+        statsService.onTicketEvent(TicketEvent.created(openTicket(3L)));
+
+        assertThat(statsService.getStats().getTotal()).isEqualTo(3);
+        assertThat(statsService.getStats().getUnassigned()).isEqualTo(3);
+    }
+
+    @Test
+    void underSteadyTrafficEventsArePausedAfterThreeSkippedRounds() throws Exception {
+        // A ticket is committed on another thread during every query; the database has 100 all along
+        List<Thread> writers = new ArrayList<>();
+        when(ticketRepository.countGroupedByStatusPriorityProblemTypeAndAssignee()).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> statsService.onTicketEvent(TicketEvent.created(openTicket(10L + writers.size()))));
+            writers.add(writer);
+            writer.start();
+            writer.join(200);
+            return rows(100);
+        });
+
+        for (int round = 0; round < 3; round++) {
+            statsService.reconcile();
+        }
+        assertThat(statsService.getStats().getTotal()).isEqualTo(4);
+
+        statsService.reconcile();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Corrected to the database's count, then the event that waited for the query
+        assertThat(statsService.getStats().getTotal()).isEqualTo(101);
+    }
+
+    private static TicketSnapshot openTicket(Long id) {
+        return new TicketSnapshot(id, TicketStatus.OPEN, Priority.MEDIUM, PROBLEM_TYPE, 1L, null, true);
+    }
+
+    private static List<Object[]> rows(long openTickets) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{TicketStatus.OPEN, Priority.MEDIUM, PROBLEM_TYPE, null, openTickets});
+        return rows;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ticketmanager.util;
+
+import com.ticketmanager.entity.Role;
+import com.ticketmanager.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class JwtUtilTest {
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hmac-sha-256";
+    private static final Duration LIFETIME = Duration.ofMinutes(15);
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", LIFETIME.toMillis());
+        jwtUtil.init();
+    }
+
+    @Test
+    void tokensWithAnIdLiveUntilTheirExpiry() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("user@test.local");
+        user.setRole(Role.USER);
+
+        String token = jwtUtil.generateToken(user);
+
+        assertThat(jwtUtil.verify(token)).isNotNull();
+        assertThat(jwtUtil.getExpiresAt(jwtUtil.verify(token)))
+                .isCloseTo(Instant.now().plus(LIFETIME).toEpochMilli(), within(5_000L));
+    }
+
+    @Test
+    void tokensWithoutAnIdEndOneLifetimeAfterTheyWereIssued() {
+        Instant issuedAt = Instant.now().minus(Duration.ofMinutes(5));
+        String token = legacyToken(issuedAt);
+
+        assertThat(jwtUtil.verify(token)).isNotNull();
+        assertThat(jwtUtil.getExpiresAt(jwtUtil.verify(token))).isEqualTo(issuedAt.plus(LIFETIME).toEpochMilli() / 1000 * 1000);
+    }
+
+    @Test
+    void tokensWithoutAnIdAreRejectedOnceALifetimeHasPassed() {
+        assertThat(jwtUtil.verify(legacyToken(Instant.now().minus(Duration.ofHours(1))))).isNull();
+    }
+
+    // As issued before access tokens had ids: a day long, and only the subject
+    private static String legacyToken(Instant issuedAt) {
+        return Jwts.builder()
+                .subject("user@test.local")
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plus(Duration.ofDays(1))))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
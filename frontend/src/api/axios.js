@@ -25,13 +25,62 @@ api.interceptors.request.use(
   }
 )
 
-// Response interceptor to handle errors
+const clearSession = () => {
+  localStorage.removeItem('token')
+  localStorage.removeItem('refreshToken')
+  window.location.href = '/login'
+}
+
+// Failures of these mean bad credentials, not an expired access token
+const SESSION_ENDPOINTS = ['/auth/login', '/auth/register', '/auth/refresh', '/auth/logout']
+
+// A single refresh is shared by all requests that fail while it is in flight: refresh tokens are
+// single-use, so a second refresh with the same token would be treated as a stolen token
+let refreshing = null
+
+const refreshAccessToken = () => {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refreshToken')
+    refreshing = axios
+      .post(`${API_URL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        localStorage.setItem('token', response.data.token)
+        localStorage.setItem('refreshToken', response.data.refreshToken)
+        return response.data.token
+      })
+      .catch((error) => {
+        // Another tab may have refreshed first; its tokens are already in storage
+        if (localStorage.getItem('refreshToken') !== refreshToken) {
+          return localStorage.getItem('token')
+        }
+        throw error
+      })
+      .finally(() => {
+        refreshing = null
+      })
+  }
+  return refreshing
+}
+
+// Response interceptor: renew an expired access token once, otherwise back to the login page
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config
+    if (error.response?.status === 401 && original && !original._retried
+        && !SESSION_ENDPOINTS.includes(original.url) && localStorage.getItem('refreshToken')) {
+      original._retried = true
+      try {
+        const token = await refreshAccessToken()
+        original.headers.Authorization = `Bearer ${token}`
+        return api(original)
+      } catch (refreshError) {
+        clearSession()
+        return Promise.reject(refreshError)
+      }
+    }
     if (error.response?.status === 401) {
-      localStorage.removeItem('token')
-      window.location.href = '/login'
+      clearSession()
     }
     return Promise.reject(error)
   }
@@ -30,6 +30,7 @@ export const AuthProvider = ({ children }) => {
       setUser(response.data)
     } catch (error) {
       localStorage.removeItem('token')
+      localStorage.removeItem('refreshToken')
     } finally {
       setLoading(false)
     }
@@ -40,14 +41,20 @@ export const AuthProvider = ({ children }) => {
       email,
       password,
     })
-    const { token } = response.data
+    const { token, refreshToken } = response.data
     localStorage.setItem('token', token)
+    localStorage.setItem('refreshToken', refreshToken)
     setUser(response.data)
     return response.data
   }
 
   const logout = () => {
+    // Best effort: revokes the refresh token and the current access token on the server
+    api.post('/auth/logout', { refreshToken: localStorage.getItem('refreshToken') }, {
+      headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+    }).catch(() => {})
     localStorage.removeItem('token')
+    localStorage.removeItem('refreshToken')
     setUser(null);
     console.log('User logged out');
   }
@@ -3,6 +3,8 @@ import { useParams, useNavigate } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
 import api from '../api/axios'
 
+const REPLIES_PAGE_SIZE = 20
+
 const TicketDetails = () => {
   const { id } = useParams()
   const { user } = useAuth()
@@ -15,12 +17,16 @@ const TicketDetails = () => {
   const [priority, setPriority] = useState('')
   const [agentId, setAgentId] = useState('')
   const [agents, setAgents] = useState([])
+  const [replies, setReplies] = useState([])
+  const [repliesCursor, setRepliesCursor] = useState(null)
+  const [loadingReplies, setLoadingReplies] = useState(false)
   const [replyContent, setReplyContent] = useState('')
   const [submittingReply, setSubmittingReply] = useState(false)
   const [error, setError] = useState('')
 
   useEffect(() => {
     fetchTicket()
+    fetchReplies()
     if (user?.role === 'ADMIN') {
       fetchAgents()
     }
@@ -28,7 +34,8 @@ const TicketDetails = () => {
 
   const fetchTicket = async () => {
     try {
-      const response = await api.get(`/tickets/${id}`)
+      // The thread is paged separately below, so no replies are embedded
+      const response = await api.get(`/tickets/${id}`, { params: { replies: 0 } })
       setTicket(response.data)
       setStatus(response.data.status)
       setPriority(response.data.priority)
@@ -40,6 +47,24 @@ const TicketDetails = () => {
     }
   }
 
+  const fetchReplies = async (cursor) => {
+    setLoadingReplies(true)
+    try {
+      const response = await api.get(`/tickets/${id}/replies`, {
+        params: { limit: REPLIES_PAGE_SIZE, cursor },
+      })
+      setReplies((previous) =>
+        cursor ? [...previous, ...response.data.items] : response.data.items
+      )
+      setRepliesCursor(response.data.nextCursor)
+    } catch (error) {
+      console.error('Failed to fetch replies:', error)
+      setError('Failed to load replies')
+    } finally {
+      setLoadingReplies(false)
+    }
+  }
+
   const fetchAgents = async () => {
     try {
       // In a real app, you'd have an endpoint to fetch all agents
@@ -109,7 +134,8 @@ const TicketDetails = () => {
         content: replyContent,
       })
       setReplyContent('')
-      fetchTicket() // Refresh ticket to get updated replies
+      fetchTicket() // Refresh ticket to get the updated reply count
+      fetchReplies()
     } catch (err) {
       setError(err.response?.data?.message || 'Failed to submit reply')
     } finally {
@@ -285,13 +311,13 @@ const TicketDetails = () => {
         {/* Replies Section */}
         <div className="border-t pt-6 mt-6">
           <h3 className="text-lg font-semibold text-gray-700 mb-4">
-            Replies ({ticket.replies?.length || 0})
+            Replies ({ticket.replyCount || 0})
           </h3>
 
           {/* Replies List */}
           <div className="space-y-4 mb-6">
-            {ticket.replies && ticket.replies.length > 0 ? (
-              ticket.replies.map((reply) => (
+            {replies.length > 0 ? (
+              replies.map((reply) => (
                 <div key={reply.id} className="bg-gray-50 rounded-lg p-4">
                   <div className="flex justify-between items-start mb-2">
                     <div>
@@ -310,6 +336,15 @@ const TicketDetails = () => {
             ) : (
               <p className="text-gray-500 text-center py-4">No replies yet</p>
             )}
+            {repliesCursor && (
+              <button
+                onClick={() => fetchReplies(repliesCursor)}
+                disabled={loadingReplies}
+                className="w-full py-2 text-blue-600 hover:text-blue-800 disabled:opacity-50 disabled:cursor-not-allowed"
+              >
+                {loadingReplies ? 'Loading...' : `Load more (${replies.length} of ${ticket.replyCount})`}
+              </button>
+            )}
           </div>
 
           {/* Reply Form */}
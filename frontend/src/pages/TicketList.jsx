@@ -5,6 +5,8 @@ import api from '../api/axios'
 
 const TicketList = () => {
   const [tickets, setTickets] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [problemTypes, setProblemTypes] = useState([])
   const [loading, setLoading] = useState(true)
   const [filters, setFilters] = useState({
@@ -34,16 +36,18 @@ const TicketList = () => {
     }
   }
 
-  const fetchTickets = async () => {
+  const fetchTickets = async (cursor = null) => {
     try {
       const params = new URLSearchParams()
       if (filters.status) params.append('status', filters.status)
       if (filters.priority) params.append('priority', filters.priority)
       if (filters.problemTypeId) params.append('problemTypeId', filters.problemTypeId)
       if (filters.isPublic !== '') params.append('isPublic', filters.isPublic)
+      if (cursor) params.append('cursor', cursor)
 
       const response = await api.get(`/tickets?${params.toString()}`)
-      setTickets(response.data)
+      setTickets((previous) => (cursor ? [...previous, ...response.data.items] : response.data.items))
+      setNextCursor(response.data.nextCursor)
     } catch (error) {
       console.error('Failed to fetch tickets:', error)
     } finally {
@@ -51,6 +55,25 @@ const TicketList = () => {
     }
   }
 
+  const claimNextTicket = async () => {
+    try {
+      const response = await api.post('/agents/me/next')
+      if (response.status === 204) {
+        alert('No tickets are waiting for your specializations')
+        return
+      }
+      navigate(`/tickets/${response.data.id}`)
+    } catch (error) {
+      console.error('Failed to claim a ticket:', error)
+    }
+  }
+
+  const loadMore = async () => {
+    setLoadingMore(true)
+    await fetchTickets(nextCursor)
+    setLoadingMore(false)
+  }
+
   const getStatusColor = (status) => {
     switch (status) {
       case 'OPEN':
@@ -93,6 +116,14 @@ const TicketList = () => {
             Create Ticket
           </button>
         )}
+        {user?.role === 'AGENT' && (
+          <button
+            onClick={claimNextTicket}
+            className="px-4 py-2 bg-blue-600 text-white rounded-lg hover:bg-blue-700 transition"
+          >
+            Next Ticket
+          </button>
+        )}
       </div>
 
       <div className="bg-white rounded-lg shadow p-4 mb-6">
@@ -214,6 +245,15 @@ const TicketList = () => {
               </div>
             </div>
           ))}
+          {nextCursor && (
+            <button
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-4 py-2 bg-gray-200 text-gray-800 rounded-lg hover:bg-gray-300 transition disabled:opacity-50"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          )}
         </div>
       )}
     </div>